@@ -100,7 +100,11 @@ public final class ClientConfigurationNetworkAddon extends ClientCommonNetworkAd
 
 	@Override
 	protected void receive(ClientConfigurationNetworking.ConfigurationPayloadHandler<?> handler, CustomPayload payload) {
-		((ClientConfigurationNetworking.ConfigurationPayloadHandler) handler).receive(payload, this.context);
+		try {
+			((ClientConfigurationNetworking.ConfigurationPayloadHandler) handler).receive(payload, this.context);
+		} finally {
+			this.releasePayload(payload);
+		}
 	}
 
 	// impl details
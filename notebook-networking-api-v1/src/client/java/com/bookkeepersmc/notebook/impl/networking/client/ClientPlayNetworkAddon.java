@@ -76,7 +76,11 @@ public final class ClientPlayNetworkAddon extends ClientCommonNetworkAddon<Clien
 	@Override
 	protected void receive(ClientPlayNetworking.PlayPayloadHandler<?> handler, CustomPayload payload) {
 		this.client.execute(() -> {
-			((ClientPlayNetworking.PlayPayloadHandler) handler).receive(payload, context);
+			try {
+				((ClientPlayNetworking.PlayPayloadHandler) handler).receive(payload, context);
+			} finally {
+				this.releasePayload(payload);
+			}
 		});
 	}
 
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.api.networking.v1;
+
+import net.minecraft.network.packet.payload.CustomPayload;
+
+/**
+ * A payload which may be encoded on a thread other than the one it was sent from.
+ *
+ * <p>By default a {@linkplain PayloadPriority#BULK bulk} payload is encoded on the sending thread, usually the server thread,
+ * since the payload object may be changed by the sender once the send method returns.
+ * Implementing this interface opts a payload into being encoded on a dedicated encoder thread instead,
+ * so that the sending thread only enqueues the payload object.
+ *
+ * <p>A payload implementing this interface must uphold the following contract:
+ * <ul>
+ *     <li>Nothing observable by the codec of the payload type may change once the payload has been sent,
+ *     this includes the contents of collections, arrays, buffers and NBT the payload refers to.
+ *     Records of immutable values and copies made when the payload is created satisfy this.</li>
+ *     <li>The codec of the payload type must not access the world or other state owned by the server thread,
+ *     and must be safe to invoke from several threads at once.</li>
+ *     <li>The same payload object may be sent to several players, it may be encoded more than once.</li>
+ * </ul>
+ *
+ * <p>Payloads are still sent in the order they were sent in, regardless of which thread encoded them.
+ * The encoder thread count is read from the {@code notebook.networking.encoderThreads} system property,
+ * setting it to {@code 0} encodes all payloads on the sending thread.
+ */
+public interface ImmutablePayload extends CustomPayload {
+}
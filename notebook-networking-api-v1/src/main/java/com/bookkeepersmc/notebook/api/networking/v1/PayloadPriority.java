@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.api.networking.v1;
+
+/**
+ * The priority class of a payload type, which controls how the payload is scheduled for sending.
+ *
+ * <p>Priorities are assigned per payload type when {@linkplain PayloadTypeRegistry#register(net.minecraft.network.packet.payload.CustomPayload.Id, net.minecraft.network.codec.PacketCodec, PayloadPriority) registering} it.
+ * Currently only play payloads sent from the server to the client are scheduled, payloads of other phases and directions are always sent immediately.
+ *
+ * @see ServerPlayNetworking#setBulkBandwidth(net.minecraft.server.network.ServerPlayNetworkHandler, int)
+ */
+public enum PayloadPriority {
+	/**
+	 * The payload is written to the connection immediately. This is the default priority.
+	 */
+	NORMAL,
+	/**
+	 * The payload is large and not latency critical, such as a map upload or a config sync.
+	 *
+	 * <p>Bulk payloads are encoded when sent, or on an encoder thread if they are {@linkplain ImmutablePayload immutable},
+	 * queued on the connection and written at the end of the player's tick, after everything sent during the tick with a {@link #NORMAL} priority.
+	 * If the connection has a bulk bandwidth budget, the queue is drained at most at that rate.
+	 * Bulk payloads are always written in the order they were sent in.
+	 *
+	 * <p>On a local connection, such as singleplayer, bulk payloads are sent immediately like {@link #NORMAL} ones.
+	 */
+	BULK
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.api.networking.v1;
+
+/**
+ * A snapshot of the bulk payload queue of a connection.
+ *
+ * @param queuedPayloads the number of payloads currently waiting in the queue
+ * @param queuedBytes the encoded size in bytes of the payloads currently waiting in the queue, not counting payloads which are still being encoded
+ * @param sentPayloads the number of payloads which have left the queue since the connection was opened
+ * @param sentBytes the encoded size in bytes of the payloads which have left the queue since the connection was opened
+ * @param totalQueueNanos the total time in nanoseconds the sent payloads spent in the queue
+ * @param maxQueueNanos the longest time in nanoseconds a single sent payload spent in the queue
+ * @see PayloadPriority#BULK
+ * @see ServerPlayNetworking#getBulkQueueStats(net.minecraft.server.network.ServerPlayNetworkHandler)
+ */
+public record PayloadQueueStats(int queuedPayloads, long queuedBytes, long sentPayloads, long sentBytes, long totalQueueNanos, long maxQueueNanos) {
+	/**
+	 * @return the average time in nanoseconds a sent payload spent in the queue, or {@code 0} if no payload has been sent yet
+	 */
+	public long averageQueueNanos() {
+		return sentPayloads == 0 ? 0 : totalQueueNanos / sentPayloads;
+	}
+}
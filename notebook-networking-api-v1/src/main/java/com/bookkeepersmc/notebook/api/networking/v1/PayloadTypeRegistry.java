@@ -22,6 +22,8 @@
  */
 package com.bookkeepersmc.notebook.api.networking.v1;
 
+import java.util.function.Supplier;
+
 import org.jetbrains.annotations.ApiStatus;
 
 import net.minecraft.network.PacketByteBuf;
@@ -47,7 +49,52 @@ public interface PayloadTypeRegistry<B extends PacketByteBuf> {
 	 * @param <T>   the payload type
 	 * @return the registered payload type
 	 */
-	<T extends CustomPayload> CustomPayload.Type<? super B, T> register(CustomPayload.Id<T> id, PacketCodec<? super B, T> codec);
+	default <T extends CustomPayload> CustomPayload.Type<? super B, T> register(CustomPayload.Id<T> id, PacketCodec<? super B, T> codec) {
+		return register(id, codec, PayloadPriority.NORMAL);
+	}
+
+	/**
+	 * Registers a custom payload type with a priority class.
+	 *
+	 * <p>This must be done on both the sending and receiving side, usually during mod initialization
+	 * and <strong>before registering a packet handler</strong>.
+	 *
+	 * @param id       the id of the payload type
+	 * @param codec    the codec for the payload type
+	 * @param priority the priority class of the payload type, which controls how payloads are scheduled for sending
+	 * @param <T>      the payload type
+	 * @return the registered payload type
+	 */
+	<T extends CustomPayload> CustomPayload.Type<? super B, T> register(CustomPayload.Id<T> id, PacketCodec<? super B, T> codec, PayloadPriority priority);
+
+	/**
+	 * Registers a custom payload type whose received instances are pooled and reused.
+	 *
+	 * <p>This must be done on both the sending and receiving side, usually during mod initialization
+	 * and <strong>before registering a packet handler</strong>. The sending side may register the type with a regular codec
+	 * which writes the same data.
+	 *
+	 * @param id      the id of the payload type
+	 * @param factory creates new instances of the payload when the pool is empty
+	 * @param <T>     the payload type
+	 * @return the registered payload type
+	 * @see PooledPayload
+	 */
+	default <T extends PooledPayload<? super B>> CustomPayload.Type<? super B, T> registerPooled(CustomPayload.Id<T> id, Supplier<T> factory) {
+		return registerPooled(id, factory, PayloadPriority.NORMAL);
+	}
+
+	/**
+	 * Registers a custom payload type whose received instances are pooled and reused, with a priority class.
+	 *
+	 * @param id       the id of the payload type
+	 * @param factory  creates new instances of the payload when the pool is empty
+	 * @param priority the priority class of the payload type, which controls how payloads are scheduled for sending
+	 * @param <T>      the payload type
+	 * @return the registered payload type
+	 * @see PooledPayload
+	 */
+	<T extends PooledPayload<? super B>> CustomPayload.Type<? super B, T> registerPooled(CustomPayload.Id<T> id, Supplier<T> factory, PayloadPriority priority);
 
 	/**
 	 * @return the {@link PayloadTypeRegistry} instance for the client to server configuration channel.
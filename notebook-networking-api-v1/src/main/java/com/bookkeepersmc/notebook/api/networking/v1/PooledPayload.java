@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.api.networking.v1;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.packet.payload.CustomPayload;
+
+/**
+ * A mutable payload whose received instances are reused, for high-frequency channels such as particle effects or position sync.
+ *
+ * <p>Pooled payload types are registered with {@link PayloadTypeRegistry#registerPooled(CustomPayload.Id, java.util.function.Supplier)}.
+ * When a pooled payload is received, an instance is taken from the payload type's pool, {@linkplain #reset() reset} and
+ * {@linkplain #read(PacketByteBuf) read} from the buffer. Once the receiver of the payload returns, the instance is returned to the pool.
+ *
+ * <p>Receivers of a pooled payload must therefore <strong>not</strong> keep a reference to the payload, or to any mutable object it holds,
+ * after the receiver returns. Copy out whatever is needed later.
+ * Received payloads which have no receiver are not returned to the pool and are simply discarded.
+ *
+ * <p>Only received payloads are pooled. A payload which is sent is encoded later on another thread,
+ * so sent instances must not be changed or reused once they have been passed to a send method.
+ *
+ * @param <B> the buffer type of the payload
+ */
+public abstract class PooledPayload<B extends PacketByteBuf> implements CustomPayload {
+	// Whether the instance was handed out by its pool, only those instances are taken back
+	private boolean pooled;
+
+	/**
+	 * Reads the contents of the payload from a buffer, replacing the current contents.
+	 *
+	 * @param buf the buffer to read from
+	 */
+	public abstract void read(B buf);
+
+	/**
+	 * Writes the contents of the payload to a buffer.
+	 *
+	 * @param buf the buffer to write to
+	 */
+	public abstract void write(B buf);
+
+	/**
+	 * Resets the payload to its initial state, releasing any references it holds.
+	 */
+	public abstract void reset();
+
+	@ApiStatus.Internal
+	public final boolean notebook_isPooled() {
+		return this.pooled;
+	}
+
+	@ApiStatus.Internal
+	public final void notebook_setPooled(boolean pooled) {
+		this.pooled = pooled;
+	}
+}
@@ -286,7 +286,8 @@ public final class ServerPlayNetworking {
 	/**
 	 * Sends a packet to a player.
 	 *
-	 * <p>Any packets sent must be {@linkplain PayloadTypeRegistry#playS2C() registered}.</p>
+	 * <p>Any packets sent must be {@linkplain PayloadTypeRegistry#playS2C() registered}.
+	 * Payloads with the {@linkplain PayloadPriority#BULK bulk} priority are queued and sent at the end of the player's tick.</p>
 	 *
 	 * @param player the player to send the packet to
 	 * @param payload the payload to send
@@ -296,7 +297,40 @@ public final class ServerPlayNetworking {
 		Objects.requireNonNull(payload, "Payload cannot be null");
 		Objects.requireNonNull(payload.getId(), "CustomPayload#getId() cannot return null for payload class: " + payload.getClass());
 
-		player.networkHandler.send(createS2CPacket(payload));
+		if (!ServerNetworkingImpl.getAddon(player.networkHandler).getScheduler().offer(payload, null)) {
+			player.networkHandler.send(createS2CPacket(payload));
+		}
+	}
+
+	/**
+	 * Sets the bandwidth budget for {@linkplain PayloadPriority#BULK bulk} payloads sent to a player.
+	 *
+	 * <p>The default budget is read from the {@code notebook.networking.bulkBandwidth} system property, and is unlimited if it is not set.
+	 * Payloads with the {@link PayloadPriority#NORMAL normal} priority are not affected by the budget.
+	 *
+	 * @param handler the network handler, representing the connection to the player/client
+	 * @param bytesPerSecond the budget in bytes per second, or {@code 0} for an unlimited budget
+	 */
+	public static void setBulkBandwidth(ServerPlayNetworkHandler handler, int bytesPerSecond) {
+		Objects.requireNonNull(handler, "Server play network handler cannot be null");
+
+		if (bytesPerSecond < 0) {
+			throw new IllegalArgumentException("Bandwidth cannot be negative");
+		}
+
+		ServerNetworkingImpl.getAddon(handler).getScheduler().setBandwidth(bytesPerSecond);
+	}
+
+	/**
+	 * Gets a snapshot of the queue of {@linkplain PayloadPriority#BULK bulk} payloads waiting to be sent to a player.
+	 *
+	 * @param handler the network handler, representing the connection to the player/client
+	 * @return the queue statistics
+	 */
+	public static PayloadQueueStats getBulkQueueStats(ServerPlayNetworkHandler handler) {
+		Objects.requireNonNull(handler, "Server play network handler cannot be null");
+
+		return ServerNetworkingImpl.getAddon(handler).getScheduler().getStats();
 	}
 
 	private ServerPlayNetworking() {
@@ -111,6 +111,23 @@ public abstract class AbstractChanneledNetworkAddon<H> extends AbstractNetworkAd
 
 	protected abstract void receive(H handler, CustomPayload payload);
 
+	/**
+	 * Returns a received {@linkplain com.bookkeepersmc.notebook.api.networking.v1.PooledPayload pooled} payload to its pool,
+	 * must be called once the handler of the payload returned.
+	 */
+	protected void releasePayload(CustomPayload payload) {
+		// Payloads received over a local connection are the sender's own instances, never decoded here
+		if (this.connection.isLocal()) {
+			return;
+		}
+
+		final PayloadTypeRegistryImpl<?> payloadTypes = this.receiver.getPayloadTypeRegistry();
+
+		if (payloadTypes != null) {
+			payloadTypes.release(payload);
+		}
+	}
+
 	protected void sendInitialChannelRegistrationPacket() {
 		final RegistrationPayload payload = createRegistrationPayload(RegistrationPayload.REGISTER, this.getReceivableChannels());
 
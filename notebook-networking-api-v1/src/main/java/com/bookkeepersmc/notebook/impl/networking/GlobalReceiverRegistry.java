@@ -232,4 +232,9 @@ public final class GlobalReceiverRegistry<H> {
 	public NetworkPhase getPhase() {
 		return phase;
 	}
+
+	@Nullable
+	public PayloadTypeRegistryImpl<?> getPayloadTypeRegistry() {
+		return payloadTypeRegistry;
+	}
 }
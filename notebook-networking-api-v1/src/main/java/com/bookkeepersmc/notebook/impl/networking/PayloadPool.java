@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.networking;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+
+import com.bookkeepersmc.notebook.api.networking.v1.PooledPayload;
+
+/**
+ * A bounded pool of received {@link PooledPayload} instances of a single payload type.
+ *
+ * <p>Payloads are decoded on the network threads and released on the main thread after their receiver returned,
+ * so the pool is shared by all connections and safe to use from any thread.
+ * Only instances handed out by {@link #decode(PacketByteBuf)} are taken back, since the payload object received over a local connection
+ * is the sender's own instance. Those are marked with a flag on the instance, which the receiving thread's task hand-off makes visible
+ * to the releasing thread.
+ *
+ * @param <B> the buffer type of the payload
+ * @param <T> the payload type
+ */
+public final class PayloadPool<B extends PacketByteBuf, T extends PooledPayload<? super B>> implements PacketCodec<B, T> {
+	// The maximum number of idle instances kept per payload type, instances released beyond that are left to the garbage collector.
+	private static final int MAX_IDLE = Integer.getInteger("notebook.networking.maxPooledPayloads", 256);
+
+	private final Supplier<T> factory;
+	private final Queue<T> idle = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	public PayloadPool(Supplier<T> factory) {
+		this.factory = factory;
+	}
+
+	public T acquire() {
+		final T payload = this.idle.poll();
+
+		if (payload == null) {
+			return this.factory.get();
+		}
+
+		this.idleCount.decrementAndGet();
+		return payload;
+	}
+
+	public void release(T payload) {
+		if (!payload.notebook_isPooled()) {
+			return;
+		}
+
+		payload.notebook_setPooled(false);
+
+		payload.reset();
+
+		if (this.idleCount.incrementAndGet() <= MAX_IDLE) {
+			this.idle.add(payload);
+		} else {
+			this.idleCount.decrementAndGet();
+		}
+	}
+
+	@Override
+	public T decode(B buf) {
+		final T payload = this.acquire();
+		payload.read(buf);
+		payload.notebook_setPooled(true);
+		return payload;
+	}
+
+	@Override
+	public void encode(B buf, T value) {
+		value.write(buf);
+	}
+}
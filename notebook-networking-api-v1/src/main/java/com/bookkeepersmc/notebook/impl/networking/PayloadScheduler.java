@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.networking;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.PacketSendListener;
+import net.minecraft.network.packet.payload.CustomPayload;
+
+import com.bookkeepersmc.notebook.api.networking.v1.ImmutablePayload;
+import com.bookkeepersmc.notebook.api.networking.v1.PacketSender;
+import com.bookkeepersmc.notebook.api.networking.v1.PayloadPriority;
+import com.bookkeepersmc.notebook.api.networking.v1.PayloadQueueStats;
+import com.bookkeepersmc.notebook.impl.networking.payload.EncodedPayload;
+
+/**
+ * Queues the {@linkplain PayloadPriority#BULK bulk} payloads of a connection and drains them within the connection's bandwidth budget.
+ *
+ * <p>Payloads may be offered from any thread, the queue is drained on the main thread once per tick.
+ * {@link ImmutablePayload}s are encoded on a shared encoder pool, all other payloads are encoded on the offering thread.
+ *
+ * <p>Nothing is queued on a local connection (singleplayer or the host of a LAN world), since its packets are handed
+ * to the other side as objects without ever being encoded, and the receiver expects the original payload.
+ *
+ * @param <B> the buffer type of the payload types
+ */
+public final class PayloadScheduler<B extends PacketByteBuf> {
+	// The default bulk bandwidth budget of a connection in bytes per second, 0 or less means unlimited.
+	private static final int DEFAULT_BULK_BANDWIDTH = Integer.getInteger("notebook.networking.bulkBandwidth", 0);
+	private static final int TICKS_PER_SECOND = 20;
+	private static final int ENCODER_THREADS = Integer.getInteger("notebook.networking.encoderThreads", Math.max(1, Runtime.getRuntime().availableProcessors() / 4));
+	@Nullable
+	private static final Executor ENCODER_EXECUTOR = ENCODER_THREADS > 0 ? createEncoderExecutor() : null;
+
+	private final PayloadTypeRegistryImpl<B> payloadTypes;
+	private final Function<ByteBuf, B> bufFactory;
+	private final PacketSender sender;
+	private final boolean local;
+	private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+	private final LongAdder sentPayloads = new LongAdder();
+	private final LongAdder sentBytes = new LongAdder();
+	private final LongAdder totalQueueNanos = new LongAdder();
+	private final AtomicLong maxQueueNanos = new AtomicLong();
+	private volatile int bandwidth = DEFAULT_BULK_BANDWIDTH;
+	// Only accessed on the main thread, may go negative when a payload is larger than the remaining allowance
+	private long allowance;
+
+	public PayloadScheduler(PayloadTypeRegistryImpl<B> payloadTypes, Function<ByteBuf, B> bufFactory, PacketSender sender, boolean local) {
+		this.payloadTypes = payloadTypes;
+		this.bufFactory = bufFactory;
+		this.sender = sender;
+		this.local = local;
+	}
+
+	/**
+	 * Queues a payload if its payload type has the {@linkplain PayloadPriority#BULK bulk} priority and the connection is not local.
+	 *
+	 * @param payload the payload
+	 * @param callback an optional callback to execute after the packet is sent
+	 * @return whether the payload was queued, if not the caller must send it itself
+	 */
+	public boolean offer(CustomPayload payload, @Nullable PacketSendListener callback) {
+		Objects.requireNonNull(payload, "Payload cannot be null");
+
+		if (this.local || this.payloadTypes.getPriority(payload.getId().id()) != PayloadPriority.BULK) {
+			return false;
+		}
+
+		final CustomPayload.Type<B, ? extends CustomPayload> type = this.payloadTypes.get(payload.getId().id());
+
+		if (type == null) {
+			return false;
+		}
+
+		final CompletableFuture<EncodedPayload> encoded;
+
+		if (ENCODER_EXECUTOR != null && payload instanceof ImmutablePayload) {
+			encoded = CompletableFuture.supplyAsync(() -> this.encode(type, payload), ENCODER_EXECUTOR);
+		} else {
+			// Encode eagerly so that later changes to the payload object are not observed
+			encoded = CompletableFuture.completedFuture(this.encode(type, payload));
+		}
+
+		this.queue.add(new Entry(encoded, callback, System.nanoTime()));
+		return true;
+	}
+
+	private EncodedPayload encode(CustomPayload.Type<B, ? extends CustomPayload> type, CustomPayload payload) {
+		return EncodedPayload.encode(type, this.bufFactory.apply(Unpooled.buffer()), payload);
+	}
+
+	/**
+	 * Drains the queue within the bandwidth budget, must be called once per tick on the main thread.
+	 */
+	public void tick() {
+		final int bandwidth = this.bandwidth;
+		final boolean limited = bandwidth > 0;
+
+		if (limited) {
+			final int budget = Math.max(bandwidth / TICKS_PER_SECOND, 1);
+			// Unused allowance does not accumulate beyond a single tick to avoid bursts after an idle period
+			this.allowance = Math.min(this.allowance + budget, budget);
+		}
+
+		Entry entry;
+
+		while ((entry = this.queue.peek()) != null) {
+			if (limited && this.allowance <= 0) {
+				break;
+			}
+
+			// Keep the send order, a payload still being encoded holds back everything queued after it
+			if (!entry.payload().isDone()) {
+				break;
+			}
+
+			this.queue.poll();
+			final EncodedPayload payload;
+
+			try {
+				payload = entry.payload().join();
+			} catch (CompletionException e) {
+				NetworkingImpl.LOGGER.error("Failed to encode queued payload", e.getCause());
+				continue;
+			}
+
+			final int size = payload.size();
+			final long waited = System.nanoTime() - entry.queuedAt();
+
+			this.allowance -= size;
+			this.sentPayloads.increment();
+			this.sentBytes.add(size);
+			this.totalQueueNanos.add(waited);
+			this.maxQueueNanos.accumulateAndGet(waited, Math::max);
+
+			this.sender.sendPacket(this.sender.createPacket(payload), entry.callback());
+		}
+	}
+
+	/**
+	 * Discards all queued payloads, called when the connection is closed.
+	 */
+	public void clear() {
+		Entry entry;
+
+		while ((entry = this.queue.poll()) != null) {
+			entry.payload().cancel(false);
+		}
+	}
+
+	/**
+	 * Sets the bulk bandwidth budget.
+	 *
+	 * @param bytesPerSecond the budget in bytes per second, 0 or less means unlimited
+	 */
+	public void setBandwidth(int bytesPerSecond) {
+		this.bandwidth = bytesPerSecond;
+	}
+
+	public int getBandwidth() {
+		return this.bandwidth;
+	}
+
+	public PayloadQueueStats getStats() {
+		// Summed from the queue instead of being counted as payloads are encoded, since encoder tasks
+		// may still finish after the queue has been cleared
+		int queuedPayloads = 0;
+		long queuedBytes = 0;
+
+		for (Entry entry : this.queue) {
+			queuedPayloads++;
+
+			if (entry.payload().isDone() && !entry.payload().isCompletedExceptionally()) {
+				queuedBytes += entry.payload().join().size();
+			}
+		}
+
+		return new PayloadQueueStats(queuedPayloads, queuedBytes, this.sentPayloads.sum(), this.sentBytes.sum(), this.totalQueueNanos.sum(), this.maxQueueNanos.get());
+	}
+
+	private static Executor createEncoderExecutor() {
+		final AtomicInteger count = new AtomicInteger();
+
+		return Executors.newFixedThreadPool(ENCODER_THREADS, runnable -> {
+			final Thread thread = new Thread(runnable, "Notebook Payload Encoder #" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private record Entry(CompletableFuture<EncodedPayload> payload, @Nullable PacketSendListener callback, long queuedAt) {
+	}
+}
@@ -25,8 +25,10 @@ package com.bookkeepersmc.notebook.impl.networking;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
 
 import net.minecraft.network.NetworkPhase;
 import net.minecraft.network.NetworkSide;
@@ -36,7 +38,9 @@ import net.minecraft.network.codec.PacketCodec;
 import net.minecraft.network.packet.payload.CustomPayload;
 import net.minecraft.util.Identifier;
 
+import com.bookkeepersmc.notebook.api.networking.v1.PayloadPriority;
 import com.bookkeepersmc.notebook.api.networking.v1.PayloadTypeRegistry;
+import com.bookkeepersmc.notebook.api.networking.v1.PooledPayload;
 
 public class PayloadTypeRegistryImpl<B extends PacketByteBuf> implements PayloadTypeRegistry<B> {
 	public static final PayloadTypeRegistryImpl<PacketByteBuf> CONFIGURATION_C2S = new PayloadTypeRegistryImpl<>(NetworkPhase.CONFIGURATION, NetworkSide.C2S);
@@ -45,18 +49,22 @@ public class PayloadTypeRegistryImpl<B extends PacketByteBuf> implements Payload
 	public static final PayloadTypeRegistryImpl<RegistryByteBuf> PLAY_S2C = new PayloadTypeRegistryImpl<>(NetworkPhase.PLAY, NetworkSide.S2C);
 
 	private final Map<Identifier, CustomPayload.Type<B, ? extends CustomPayload>> packetTypes = new HashMap<>();
+	private final Map<Identifier, PayloadPriority> priorities = new HashMap<>();
+	private final Map<Identifier, PayloadPool<B, ?>> pools = new HashMap<>();
 	private final NetworkPhase state;
 	private final NetworkSide side;
 
-	private PayloadTypeRegistryImpl(NetworkPhase state, NetworkSide side) {
+	@VisibleForTesting
+	PayloadTypeRegistryImpl(NetworkPhase state, NetworkSide side) {
 		this.state = state;
 		this.side = side;
 	}
 
 	@Override
-	public <T extends CustomPayload> CustomPayload.Type<? super B, T> register(CustomPayload.Id<T> id, PacketCodec<? super B, T> codec) {
+	public <T extends CustomPayload> CustomPayload.Type<? super B, T> register(CustomPayload.Id<T> id, PacketCodec<? super B, T> codec, PayloadPriority priority) {
 		Objects.requireNonNull(id, "id");
 		Objects.requireNonNull(codec, "codec");
+		Objects.requireNonNull(priority, "priority");
 
 		final CustomPayload.Type<B, T> payloadType = new CustomPayload.Type<>(id, codec.cast());
 
@@ -65,9 +73,38 @@ public class PayloadTypeRegistryImpl<B extends PacketByteBuf> implements Payload
 		}
 
 		packetTypes.put(id.id(), payloadType);
+
+		if (priority != PayloadPriority.NORMAL) {
+			priorities.put(id.id(), priority);
+		}
+
+		return payloadType;
+	}
+
+	@Override
+	public <T extends PooledPayload<? super B>> CustomPayload.Type<? super B, T> registerPooled(CustomPayload.Id<T> id, Supplier<T> factory, PayloadPriority priority) {
+		Objects.requireNonNull(factory, "factory");
+
+		final PayloadPool<B, T> pool = new PayloadPool<>(factory);
+		final CustomPayload.Type<? super B, T> payloadType = register(id, pool, priority);
+		pools.put(id.id(), pool);
 		return payloadType;
 	}
 
+	/**
+	 * Returns a received {@link PooledPayload} to the pool of its payload type, does nothing for other payloads.
+	 */
+	@SuppressWarnings("unchecked")
+	public void release(CustomPayload payload) {
+		if (payload instanceof PooledPayload<?>) {
+			final PayloadPool<B, PooledPayload<? super B>> pool = (PayloadPool<B, PooledPayload<? super B>>) pools.get(payload.getId().id());
+
+			if (pool != null) {
+				pool.release((PooledPayload<? super B>) payload);
+			}
+		}
+	}
+
 	@Nullable
 	public CustomPayload.Type<B, ? extends CustomPayload> get(Identifier id) {
 		return packetTypes.get(id);
@@ -79,6 +116,10 @@ public class PayloadTypeRegistryImpl<B extends PacketByteBuf> implements Payload
 		return (CustomPayload.Type<B, T>) packetTypes.get(id.id());
 	}
 
+	public PayloadPriority getPriority(Identifier id) {
+		return priorities.getOrDefault(id, PayloadPriority.NORMAL);
+	}
+
 	public NetworkPhase getPhase() {
 		return state;
 	}
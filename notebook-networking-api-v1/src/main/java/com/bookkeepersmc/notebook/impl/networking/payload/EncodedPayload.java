@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.networking.payload;
+
+import io.netty.buffer.ByteBuf;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.payload.CustomPayload;
+
+/**
+ * A payload which has already been encoded by the codec of its payload type.
+ *
+ * <p>The custom payload codec writes the encoded bytes in place of invoking the codec of the payload type,
+ * so the receiving side decodes the original payload.
+ */
+public record EncodedPayload(Id<?> id, byte[] data) implements CustomPayload {
+	public static final PacketCodec<PacketByteBuf, EncodedPayload> CODEC = new PacketCodec<>() {
+		@Override
+		public EncodedPayload decode(PacketByteBuf buf) {
+			throw new UnsupportedOperationException("Encoded payloads can only be written");
+		}
+
+		@Override
+		public void encode(PacketByteBuf buf, EncodedPayload value) {
+			buf.writeBytes(value.data);
+		}
+	};
+
+	/**
+	 * Encodes a payload with the codec of its payload type.
+	 *
+	 * @param type the payload type
+	 * @param buf an empty buffer to encode into, released after encoding
+	 * @param payload the payload
+	 * @return the encoded payload
+	 */
+	@SuppressWarnings("unchecked")
+	public static <B extends ByteBuf> EncodedPayload encode(CustomPayload.Type<B, ? extends CustomPayload> type, B buf, CustomPayload payload) {
+		try {
+			((PacketCodec<B, CustomPayload>) type.codec()).encode(buf, payload);
+			byte[] data = new byte[buf.readableBytes()];
+			buf.readBytes(data);
+			return new EncodedPayload(payload.getId(), data);
+		} finally {
+			buf.release();
+		}
+	}
+
+	public int size() {
+		return data.length;
+	}
+
+	@Override
+	public Id<? extends CustomPayload> getId() {
+		return id;
+	}
+}
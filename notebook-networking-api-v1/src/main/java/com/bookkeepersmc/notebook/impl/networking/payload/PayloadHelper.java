@@ -22,21 +22,23 @@
  */
 package com.bookkeepersmc.notebook.impl.networking.payload;
 
-import net.minecraft.network.PacketByteBuf;
+import io.netty.buffer.Unpooled;
 
-import com.bookkeepersmc.notebook.api.networking.v1.ByteBufUtils;
+import net.minecraft.network.PacketByteBuf;
 
 public class PayloadHelper {
 	public static void write(PacketByteBuf byteBuf, PacketByteBuf data) {
-		byteBuf.writeBytes(data.copy());
+		// Copies the readable bytes without moving the reader index of data or allocating an intermediate copy
+		byteBuf.writeBytes(data, data.readerIndex(), data.readableBytes());
 	}
 
 	public static PacketByteBuf read(PacketByteBuf byteBuf, int maxSize) {
 		assertSize(byteBuf, maxSize);
 
-		PacketByteBuf newBuf = ByteBufUtils.create();
-		newBuf.writeBytes(byteBuf.copy());
-		byteBuf.skipBytes(byteBuf.readableBytes());
+		// Copy once into an exactly sized heap buffer, this also consumes the readable bytes of byteBuf
+		final int size = byteBuf.readableBytes();
+		PacketByteBuf newBuf = new PacketByteBuf(Unpooled.buffer(size, size));
+		newBuf.writeBytes(byteBuf);
 		return newBuf;
 	}
 
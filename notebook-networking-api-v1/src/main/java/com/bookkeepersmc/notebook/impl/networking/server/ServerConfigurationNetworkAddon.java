@@ -111,7 +111,11 @@ public final class ServerConfigurationNetworkAddon extends AbstractChanneledNetw
 
 	@Override
 	protected void receive(ServerConfigurationNetworking.ConfigurationPacketHandler<?> handler, CustomPayload payload) {
-		((ServerConfigurationNetworking.ConfigurationPacketHandler) handler).receive(payload, this.context);
+		try {
+			((ServerConfigurationNetworking.ConfigurationPacketHandler) handler).receive(payload, this.context);
+		} finally {
+			this.releasePayload(payload);
+		}
 	}
 
 	// impl details
@@ -26,8 +26,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import org.jetbrains.annotations.Nullable;
+
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.NetworkPhase;
+import net.minecraft.network.PacketSendListener;
+import net.minecraft.network.RegistryByteBuf;
 import net.minecraft.network.packet.Packet;
 import net.minecraft.network.packet.payload.CustomPayload;
 import net.minecraft.server.MinecraftServer;
@@ -42,6 +46,8 @@ import com.bookkeepersmc.notebook.api.networking.v1.ServerPlayNetworking;
 import com.bookkeepersmc.notebook.impl.networking.AbstractChanneledNetworkAddon;
 import com.bookkeepersmc.notebook.impl.networking.ChannelInfoHolder;
 import com.bookkeepersmc.notebook.impl.networking.NetworkingImpl;
+import com.bookkeepersmc.notebook.impl.networking.PayloadScheduler;
+import com.bookkeepersmc.notebook.impl.networking.PayloadTypeRegistryImpl;
 import com.bookkeepersmc.notebook.impl.networking.RegistrationPayload;
 
 public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<ServerPlayNetworking.PlayPayloadHandler<?>> {
@@ -49,12 +55,14 @@ public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<
 	private final MinecraftServer server;
 	private boolean sentInitialRegisterPacket;
 	private final ServerPlayNetworking.Context context;
+	private final PayloadScheduler<RegistryByteBuf> scheduler;
 
 	public ServerPlayNetworkAddon(ServerPlayNetworkHandler handler, ClientConnection connection, MinecraftServer server) {
 		super(ServerNetworkingImpl.PLAY, connection, "ServerPlayNetworkAddon for " + handler.player.getDisplayName());
 		this.handler = handler;
 		this.server = server;
 		this.context = new ContextImpl(server, handler, this);
+		this.scheduler = new PayloadScheduler<>(PayloadTypeRegistryImpl.PLAY_S2C, buf -> new RegistryByteBuf(buf, server.getRegistryManager()), this, connection.isLocal());
 
 		// Must register pending channels via lateinit
 		this.registerPendingChannels((ChannelInfoHolder) this.connection, NetworkPhase.PLAY);
@@ -72,10 +80,22 @@ public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<
 		this.sentInitialRegisterPacket = true;
 	}
 
+	public void tick() {
+		this.scheduler.tick();
+	}
+
+	public PayloadScheduler<RegistryByteBuf> getScheduler() {
+		return this.scheduler;
+	}
+
 	@Override
 	protected void receive(ServerPlayNetworking.PlayPayloadHandler<?> payloadHandler, CustomPayload payload) {
 		this.server.execute(() -> {
-			((ServerPlayNetworking.PlayPayloadHandler) payloadHandler).receive(payload, ServerPlayNetworkAddon.this.context);
+			try {
+				((ServerPlayNetworking.PlayPayloadHandler) payloadHandler).receive(payload, ServerPlayNetworkAddon.this.context);
+			} finally {
+				this.releasePayload(payload);
+			}
 		});
 	}
 
@@ -91,6 +111,18 @@ public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<
 		return ServerPlayNetworking.createS2CPacket(packet);
 	}
 
+	@Override
+	public void sendPacket(CustomPayload payload) {
+		this.sendPacket(payload, null);
+	}
+
+	@Override
+	public void sendPacket(CustomPayload payload, @Nullable PacketSendListener callback) {
+		if (!this.scheduler.offer(payload, callback)) {
+			this.sendPacket(this.createPacket(payload), callback);
+		}
+	}
+
 	@Override
 	protected void invokeRegisterEvent(List<Identifier> ids) {
 		S2CPlayChannelEvents.REGISTER.invoker().onChannelRegister(this.handler, this, this.server, ids);
@@ -127,6 +159,7 @@ public final class ServerPlayNetworkAddon extends AbstractChanneledNetworkAddon<
 
 	@Override
 	protected void invokeDisconnectEvent() {
+		this.scheduler.clear();
 		ServerPlayConnectionEvents.DISCONNECT.invoker().onPlayDisconnect(this.handler, this.server);
 	}
 
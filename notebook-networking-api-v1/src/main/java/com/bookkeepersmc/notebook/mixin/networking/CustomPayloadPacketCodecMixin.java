@@ -36,6 +36,7 @@ import net.minecraft.util.Identifier;
 
 import com.bookkeepersmc.notebook.impl.networking.CustomPayloadTypeProvider;
 import com.bookkeepersmc.notebook.impl.networking.NotebookCustomPayloadPacketCodec;
+import com.bookkeepersmc.notebook.impl.networking.payload.EncodedPayload;
 
 @Mixin(targets = "net/minecraft/network/packet/payload/CustomPayload$C_idfcqkqn")
 public abstract class CustomPayloadPacketCodecMixin<B extends PacketByteBuf> implements PacketCodec<B, CustomPayload>, NotebookCustomPayloadPacketCodec<B> {
@@ -51,10 +52,17 @@ public abstract class CustomPayloadPacketCodecMixin<B extends PacketByteBuf> imp
 		this.customPayloadTypeProvider = customPayloadTypeProvider;
 	}
 
-	@WrapOperation(method = {
-			"write(Lnet/minecraft/network/PacketByteBuf;Lnet/minecraft/network/packet/payload/CustomPayload$Id;Lnet/minecraft/network/packet/payload/CustomPayload;)V",
-			"decode(Lnet/minecraft/network/PacketByteBuf;)Lnet/minecraft/network/packet/payload/CustomPayload;"
-	}, at = @At(value = "INVOKE", target = "Lnet/minecraft/network/packet/payload/CustomPayload$C_idfcqkqn;getPacketCodec(Lnet/minecraft/util/Identifier;)Lnet/minecraft/network/codec/PacketCodec;"))
+	@WrapOperation(method = "write(Lnet/minecraft/network/PacketByteBuf;Lnet/minecraft/network/packet/payload/CustomPayload$Id;Lnet/minecraft/network/packet/payload/CustomPayload;)V", at = @At(value = "INVOKE", target = "Lnet/minecraft/network/packet/payload/CustomPayload$C_idfcqkqn;getPacketCodec(Lnet/minecraft/util/Identifier;)Lnet/minecraft/network/codec/PacketCodec;"))
+	private PacketCodec<B, ? extends CustomPayload> wrapGetWriteCodec(@Coerce PacketCodec<B, CustomPayload> instance, Identifier identifier, Operation<PacketCodec<B, CustomPayload>> original, B packetByteBuf, CustomPayload.Id<?> id, CustomPayload payload) {
+		// Payloads which were already encoded by the sender only need their bytes copied
+		if (payload instanceof EncodedPayload) {
+			return EncodedPayload.CODEC.cast();
+		}
+
+		return wrapGetCodec(instance, identifier, original, packetByteBuf);
+	}
+
+	@WrapOperation(method = "decode(Lnet/minecraft/network/PacketByteBuf;)Lnet/minecraft/network/packet/payload/CustomPayload;", at = @At(value = "INVOKE", target = "Lnet/minecraft/network/packet/payload/CustomPayload$C_idfcqkqn;getPacketCodec(Lnet/minecraft/util/Identifier;)Lnet/minecraft/network/codec/PacketCodec;"))
 	private PacketCodec<B, ? extends CustomPayload> wrapGetCodec(@Coerce PacketCodec<B, CustomPayload> instance, Identifier identifier, Operation<PacketCodec<B, CustomPayload>> original, B packetByteBuf) {
 		if (customPayloadTypeProvider != null) {
 			CustomPayload.Type<B, ? extends CustomPayload> payloadType = customPayloadTypeProvider.get(packetByteBuf, identifier);
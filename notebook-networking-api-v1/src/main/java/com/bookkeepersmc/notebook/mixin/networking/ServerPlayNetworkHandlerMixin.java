@@ -59,6 +59,11 @@ abstract class ServerPlayNetworkHandlerMixin extends AbstractServerPacketHandler
 		}
 	}
 
+	@Inject(method = "tick", at = @At("TAIL"))
+	private void tickAddon(CallbackInfo ci) {
+		this.addon.tick();
+	}
+
 	@Inject(method = "onCustomPayload", at = @At("HEAD"), cancellable = true)
 	private void handleCustomPayloadReceivedAsync(CustomPayloadC2SPacket packet, CallbackInfo ci) {
 		if (getAddon().handle(packet.payload())) {
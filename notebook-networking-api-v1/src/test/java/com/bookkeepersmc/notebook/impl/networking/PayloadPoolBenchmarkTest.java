@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.networking;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+
+/**
+ * Benchmark of the allocation rate of pooled payloads at 10k received messages per second, only run with
+ * {@code -Dnotebook.networking.debug.benchmark=true} given to Gradle.
+ *
+ * <p>Each message is decoded, handed to a receiver and released, once through a {@link PayloadPool} and once through a codec
+ * creating a new instance per message, on one thread like the network and main thread do in turn.
+ * The allocated bytes per message are scaled to the allocation rate at the target message rate.
+ */
+@EnabledIfSystemProperty(named = "notebook.networking.debug.benchmark", matches = "true")
+public class PayloadPoolBenchmarkTest {
+	private static final Logger LOGGER = LoggerFactory.getLogger("notebookNetworkingBenchmark");
+	private static final int MESSAGES_PER_SECOND = 10_000;
+	private static final int SECONDS = Integer.getInteger("notebook.networking.debug.benchmark.seconds", 10);
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	@Test
+	public void allocationRate() {
+		final PayloadPool<PacketByteBuf, PayloadPoolTest.TestPayload> pool = new PayloadPool<>(PayloadPoolTest.TestPayload::new);
+		final PacketCodec<PacketByteBuf, PayloadPoolTest.TestPayload> allocating = PacketCodec.of(PayloadPoolTest.TestPayload::write, buf -> {
+			final PayloadPoolTest.TestPayload payload = new PayloadPoolTest.TestPayload();
+			payload.read(buf);
+			return payload;
+		});
+
+		final PacketByteBuf buf = PayloadPoolTest.encode(42, 1.5);
+
+		// Warm up both paths first, so that the JIT does not end up in the measurement.
+		run(buf, pool, allocating, false);
+		run(buf, pool, allocating, true);
+	}
+
+	private static void run(PacketByteBuf buf, PayloadPool<PacketByteBuf, PayloadPoolTest.TestPayload> pool, PacketCodec<PacketByteBuf, PayloadPoolTest.TestPayload> allocating, boolean log) {
+		final int messages = MESSAGES_PER_SECOND * SECONDS;
+		long checksum = 0;
+
+		long allocated = THREADS.getCurrentThreadAllocatedBytes();
+		long start = System.nanoTime();
+
+		for (int i = 0; i < messages; i++) {
+			buf.readerIndex(0);
+			final PayloadPoolTest.TestPayload payload = pool.decode(buf);
+			checksum += payload.entity;
+			pool.release(payload);
+		}
+
+		final long pooledBytes = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+		final long pooledNanos = System.nanoTime() - start;
+
+		allocated = THREADS.getCurrentThreadAllocatedBytes();
+		start = System.nanoTime();
+
+		for (int i = 0; i < messages; i++) {
+			buf.readerIndex(0);
+			checksum += allocating.decode(buf).entity;
+		}
+
+		final long allocatingBytes = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+		final long allocatingNanos = System.nanoTime() - start;
+
+		if (log) {
+			LOGGER.info(String.format(Locale.ROOT, "pooled:     %6.1f bytes/message, %10.0f bytes/s at %d messages/s, %6.1f ns/message",
+					(double) pooledBytes / messages, (double) pooledBytes / SECONDS, MESSAGES_PER_SECOND, (double) pooledNanos / messages));
+			LOGGER.info(String.format(Locale.ROOT, "allocating: %6.1f bytes/message, %10.0f bytes/s at %d messages/s, %6.1f ns/message (checksum %d)",
+					(double) allocatingBytes / messages, (double) allocatingBytes / SECONDS, MESSAGES_PER_SECOND, (double) allocatingNanos / messages, checksum));
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.networking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.packet.payload.CustomPayload;
+import net.minecraft.util.Identifier;
+
+import com.bookkeepersmc.notebook.api.networking.v1.PooledPayload;
+
+public class PayloadPoolTest {
+	@Test
+	public void releasedPayloadIsReused() {
+		final PayloadPool<PacketByteBuf, TestPayload> pool = new PayloadPool<>(TestPayload::new);
+		final TestPayload first = pool.decode(encode(1, 2.0));
+
+		assertEquals(1, first.entity);
+		assertEquals(2.0, first.x);
+
+		pool.release(first);
+		assertEquals(0, first.entity, "Released payloads are reset");
+
+		final TestPayload second = pool.decode(encode(3, 4.0));
+		assertSame(first, second);
+		assertEquals(3, second.entity);
+		assertEquals(4.0, second.x);
+	}
+
+	@Test
+	public void onlyDecodedPayloadsAreTakenBack() {
+		final PayloadPool<PacketByteBuf, TestPayload> pool = new PayloadPool<>(TestPayload::new);
+		// Like a payload received over a local connection, which is the sender's own instance.
+		final TestPayload sent = new TestPayload();
+		sent.entity = 5;
+
+		pool.release(sent);
+		assertEquals(5, sent.entity, "A payload the pool did not hand out must not be reset");
+		assertNotSame(sent, pool.decode(encode(1, 1.0)));
+	}
+
+	@Test
+	public void releasingTwiceKeepsOneInstance() {
+		final PayloadPool<PacketByteBuf, TestPayload> pool = new PayloadPool<>(TestPayload::new);
+		final TestPayload payload = pool.decode(encode(1, 1.0));
+
+		pool.release(payload);
+		pool.release(payload);
+
+		assertSame(payload, pool.decode(encode(2, 2.0)));
+		assertNotSame(payload, pool.decode(encode(3, 3.0)), "A payload released twice must only be handed out once");
+	}
+
+	static PacketByteBuf encode(int entity, double x) {
+		final TestPayload payload = new TestPayload();
+		payload.entity = entity;
+		payload.x = x;
+
+		final PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+		payload.write(buf);
+		return buf;
+	}
+
+	static class TestPayload extends PooledPayload<PacketByteBuf> {
+		static final CustomPayload.Id<TestPayload> ID = new CustomPayload.Id<>(Identifier.of("notebook", "test_pooled"));
+
+		int entity;
+		double x;
+		double y;
+		double z;
+
+		@Override
+		public void read(PacketByteBuf buf) {
+			this.entity = buf.readVarInt();
+			this.x = buf.readDouble();
+			this.y = buf.readDouble();
+			this.z = buf.readDouble();
+		}
+
+		@Override
+		public void write(PacketByteBuf buf) {
+			buf.writeVarInt(this.entity);
+			buf.writeDouble(this.x);
+			buf.writeDouble(this.y);
+			buf.writeDouble(this.z);
+		}
+
+		@Override
+		public void reset() {
+			this.entity = 0;
+			this.x = 0;
+			this.y = 0;
+			this.z = 0;
+		}
+
+		@Override
+		public Id<? extends CustomPayload> getId() {
+			return ID;
+		}
+	}
+}
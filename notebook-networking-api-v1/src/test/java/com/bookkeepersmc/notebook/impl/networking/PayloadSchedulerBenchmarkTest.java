@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.networking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.minecraft.network.NetworkPhase;
+import net.minecraft.network.NetworkSide;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.payload.CustomPayload;
+import net.minecraft.util.Identifier;
+
+import com.bookkeepersmc.notebook.api.networking.v1.ImmutablePayload;
+import com.bookkeepersmc.notebook.api.networking.v1.PacketSender;
+import com.bookkeepersmc.notebook.api.networking.v1.PayloadPriority;
+import com.bookkeepersmc.notebook.api.networking.v1.PayloadQueueStats;
+
+/**
+ * Benchmark of the main thread time spent on bulk payloads, only run with {@code -Dnotebook.networking.debug.benchmark=true} given to Gradle.
+ *
+ * <p>The same data is sent once as a plain payload, which is encoded on the sending thread, and once as an {@link ImmutablePayload},
+ * which is encoded on the encoder pool. Both report the CPU time of the sending thread, which offers the payloads and drains the queue
+ * once per simulated tick, per encoded megabyte.
+ */
+@EnabledIfSystemProperty(named = "notebook.networking.debug.benchmark", matches = "true")
+public class PayloadSchedulerBenchmarkTest {
+	private static final Logger LOGGER = LoggerFactory.getLogger("notebookNetworkingBenchmark");
+	private static final int PAYLOADS = Integer.getInteger("notebook.networking.debug.benchmark.payloads", 2_000);
+	private static final int PAYLOADS_PER_TICK = 20;
+	// Ints per payload, written as var ints, so that encoding costs CPU time like real codecs do
+	private static final int PAYLOAD_INTS = 16_384;
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	private static final CustomPayload.Id<PlainPayload> PLAIN_ID = new CustomPayload.Id<>(Identifier.of("notebook", "benchmark_plain"));
+	private static final CustomPayload.Id<ImmutableTestPayload> IMMUTABLE_ID = new CustomPayload.Id<>(Identifier.of("notebook", "benchmark_immutable"));
+
+	@Test
+	public void mainThreadTimePerMegabyte() {
+		final PayloadTypeRegistryImpl<PacketByteBuf> payloadTypes = new PayloadTypeRegistryImpl<>(NetworkPhase.PLAY, NetworkSide.S2C);
+		payloadTypes.register(PLAIN_ID, codec(PlainPayload::new, PlainPayload::data), PayloadPriority.BULK);
+		payloadTypes.register(IMMUTABLE_ID, codec(ImmutableTestPayload::new, ImmutableTestPayload::data), PayloadPriority.BULK);
+
+		final int[] data = new Random(0).ints(PAYLOAD_INTS).toArray();
+
+		// Warm up both paths first, so that the JIT does not end up in the measurement.
+		measure("plain", payloadTypes, () -> new PlainPayload(data), false);
+		measure("immutable", payloadTypes, () -> new ImmutableTestPayload(data), false);
+
+		measure("plain", payloadTypes, () -> new PlainPayload(data), true);
+		measure("immutable", payloadTypes, () -> new ImmutableTestPayload(data), true);
+	}
+
+	private static void measure(String name, PayloadTypeRegistryImpl<PacketByteBuf> payloadTypes, Supplier<CustomPayload> payloads, boolean log) {
+		final PayloadScheduler<PacketByteBuf> scheduler = new PayloadScheduler<>(payloadTypes, PacketByteBuf::new, mock(PacketSender.class), false);
+		final long start = System.nanoTime();
+		final long cpuStart = THREADS.getCurrentThreadCpuTime();
+
+		for (int i = 0; i < PAYLOADS; i++) {
+			scheduler.offer(payloads.get(), null);
+
+			if ((i + 1) % PAYLOADS_PER_TICK == 0) {
+				scheduler.tick();
+			}
+		}
+
+		// Keep ticking until the encoder pool caught up, like the server would.
+		while (scheduler.getStats().queuedPayloads() > 0) {
+			scheduler.tick();
+			Thread.onSpinWait();
+		}
+
+		final long cpuNanos = THREADS.getCurrentThreadCpuTime() - cpuStart;
+		final long nanos = System.nanoTime() - start;
+		final PayloadQueueStats stats = scheduler.getStats();
+		final double megabytes = stats.sentBytes() / (1024D * 1024D);
+
+		assertEquals(PAYLOADS, stats.sentPayloads(), name + " sent payloads");
+
+		if (log) {
+			LOGGER.info(String.format(Locale.ROOT, "%-10s %8.3f ms main thread CPU/MB, %8.3f ms wall/MB, %.1f MB sent",
+					name, cpuNanos / 1_000_000D / megabytes, nanos / 1_000_000D / megabytes, megabytes));
+		}
+	}
+
+	private static <T extends CustomPayload> PacketCodec<PacketByteBuf, T> codec(Function<int[], T> factory, Function<T, int[]> getter) {
+		return new PacketCodec<>() {
+			@Override
+			public T decode(PacketByteBuf buf) {
+				final int[] data = new int[buf.readVarInt()];
+
+				for (int i = 0; i < data.length; i++) {
+					data[i] = buf.readVarInt();
+				}
+
+				return factory.apply(data);
+			}
+
+			@Override
+			public void encode(PacketByteBuf buf, T value) {
+				final int[] data = getter.apply(value);
+				buf.writeVarInt(data.length);
+
+				for (int i : data) {
+					buf.writeVarInt(i);
+				}
+			}
+		};
+	}
+
+	private record PlainPayload(int[] data) implements CustomPayload {
+		@Override
+		public Id<? extends CustomPayload> getId() {
+			return PLAIN_ID;
+		}
+	}
+
+	private record ImmutableTestPayload(int[] data) implements ImmutablePayload {
+		@Override
+		public Id<? extends CustomPayload> getId() {
+			return IMMUTABLE_ID;
+		}
+	}
+}
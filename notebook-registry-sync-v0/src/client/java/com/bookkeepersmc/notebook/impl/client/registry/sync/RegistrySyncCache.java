@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.registry.sync;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtTagSizeTracker;
+import net.minecraft.util.Identifier;
+
+import com.bookkeepersmc.loader.api.NotebookLoader;
+import com.bookkeepersmc.notebook.impl.registry.sync.RegistryMapSerializer;
+
+/**
+ * Registry maps received from servers, stored on disk in the {@link RegistryMapSerializer} format and keyed by the hash the server sent for them.
+ *
+ * <p>At most {@code notebook.registry.sync.cacheSize} maps are kept, the least recently used ones are removed first.
+ * Files written with a different {@link RegistryMapSerializer#VERSION} are ignored.
+ */
+public final class RegistrySyncCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(RegistrySyncCache.class);
+	private static final int MAX_ENTRIES = Integer.getInteger("notebook.registry.sync.cacheSize", 16);
+	private static final String EXTENSION = ".dat";
+
+	private RegistrySyncCache() { }
+
+	private static Path getDirectory() {
+		return NotebookLoader.getInstance().getGameDir().resolve(".notebook").resolve("registry-sync-cache");
+	}
+
+	private static Path getPath(byte[] hash) {
+		return getDirectory().resolve(HexFormat.of().formatHex(hash) + EXTENSION);
+	}
+
+	/**
+	 * @return the cached map for the given hash, or {@code null} if there is none
+	 */
+	@Nullable
+	public static Map<Identifier, Object2IntMap<Identifier>> read(byte[] hash) {
+		if (MAX_ENTRIES <= 0) {
+			return null;
+		}
+
+		final Path path = getPath(hash);
+
+		if (!Files.isRegularFile(path)) {
+			return null;
+		}
+
+		try {
+			final NbtCompound nbt = NbtIo.readCompressed(path, NbtTagSizeTracker.createWithUnlimitedBytes());
+
+			if (nbt.getInt("version") != RegistryMapSerializer.VERSION) {
+				LOGGER.debug("Ignoring cached registry map {} written with version {}", path.getFileName(), nbt.getInt("version"));
+				return null;
+			}
+
+			// Keep recently used maps from being evicted.
+			Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+			return RegistryMapSerializer.fromNbt(nbt);
+		} catch (Exception e) {
+			LOGGER.warn("Failed to read cached registry map {}", path.getFileName(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores a map serialized with {@link RegistryMapSerializer#toNbt(Map)} under the given hash.
+	 */
+	public static void write(byte[] hash, NbtCompound nbt) {
+		if (MAX_ENTRIES <= 0) {
+			return;
+		}
+
+		final Path path = getPath(hash);
+
+		try {
+			Files.createDirectories(path.getParent());
+			final Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+			NbtIo.writeCompressed(nbt, tempPath);
+			Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+			evict();
+		} catch (IOException e) {
+			LOGGER.warn("Failed to write cached registry map {}", path.getFileName(), e);
+		}
+	}
+
+	private static void evict() throws IOException {
+		final List<Path> files;
+
+		try (Stream<Path> stream = Files.list(getDirectory())) {
+			files = stream.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+					.sorted(Comparator.comparing(RegistrySyncCache::getLastModifiedTime).reversed())
+					.toList();
+		}
+
+		for (int i = MAX_ENTRIES; i < files.size(); i++) {
+			Files.deleteIfExists(files.get(i));
+		}
+	}
+
+	private static FileTime getLastModifiedTime(Path path) {
+		try {
+			return Files.getLastModifiedTime(path);
+		} catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+}
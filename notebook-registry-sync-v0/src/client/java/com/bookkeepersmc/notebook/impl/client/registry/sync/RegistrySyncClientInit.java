@@ -22,45 +22,106 @@
  */
 package com.bookkeepersmc.notebook.impl.client.registry.sync;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.network.ClientConfigurationNetworkHandler;
+import net.minecraft.nbt.NbtCompound;
 import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
 
 import com.bookkeepersmc.api.ClientModInitializer;
+import com.bookkeepersmc.notebook.api.client.networking.v1.ClientConfigurationConnectionEvents;
 import com.bookkeepersmc.notebook.api.client.networking.v1.ClientConfigurationNetworking;
+import com.bookkeepersmc.notebook.api.networking.v1.PacketSender;
+import com.bookkeepersmc.notebook.impl.registry.sync.RegistryMapSerializer;
 import com.bookkeepersmc.notebook.impl.registry.sync.RegistrySyncManager;
 import com.bookkeepersmc.notebook.impl.registry.sync.RemapException;
 import com.bookkeepersmc.notebook.impl.registry.sync.SyncCompletePayload;
+import com.bookkeepersmc.notebook.impl.registry.sync.SyncHashPayload;
+import com.bookkeepersmc.notebook.impl.registry.sync.SyncHashResponsePayload;
 import com.bookkeepersmc.notebook.impl.registry.sync.packet.RegistryPacketHandler;
 
 public class RegistrySyncClientInit implements ClientModInitializer {
 	private static final Logger LOGGER = LoggerFactory.getLogger(RegistrySyncClientInit.class);
 
+	// Hash of the map the server is about to send, used to cache it once received.
+	// Only valid for the configuration phase it was received in, a slice from any other connection must not be cached under it.
+	@Nullable
+	private static volatile PendingHash pendingHash;
+
 	@Override
 	public void onInitializeClient() {
 		registerSyncPacketReceiver(RegistrySyncManager.DIRECT_PACKET_HANDLER);
+		registerSyncPacketReceiver(RegistrySyncManager.COMPACT_PACKET_HANDLER);
+
+		ClientConfigurationConnectionEvents.INIT.register((handler, client) -> pendingHash = null);
+		ClientConfigurationConnectionEvents.DISCONNECT.register((handler, client) -> pendingHash = null);
+
+		ClientConfigurationNetworking.registerGlobalReceiver(SyncHashPayload.TYPE, (payload, context) -> {
+			final boolean accept = RegistrySyncManager.DEBUG || !context.client().isSingleplayer();
+			final Map<Identifier, Object2IntMap<Identifier>> map = accept ? RegistrySyncCache.read(payload.hash()) : null;
+
+			if (map == null) {
+				pendingHash = accept ? new PendingHash(context.networkHandler(), payload.hash()) : null;
+				context.responseSender().sendPacket(new SyncHashResponsePayload(false));
+				return;
+			}
+
+			pendingHash = null;
+			context.responseSender().sendPacket(new SyncHashResponsePayload(true));
+			handleResult(RegistrySyncManager.applyRemote(context.client(), map), context.client(), context.responseSender());
+		});
 	}
 
 	private <T extends RegistryPacketHandler.RegistrySyncPayload> void registerSyncPacketReceiver(RegistryPacketHandler<T> packetHandler) {
 		ClientConfigurationNetworking.registerGlobalReceiver(packetHandler.getPacketId(), (payload, context) -> {
-			RegistrySyncManager.receivePacket(context.client(), packetHandler, payload, RegistrySyncManager.DEBUG || !context.client().isSingleplayer())
-					.whenComplete((complete, throwable) -> {
-						if (throwable != null) {
-							LOGGER.error("Registry remapping failed!", throwable);
-							context.client().execute(() -> context.responseSender().disconnect(getText(throwable)));
-							return;
-						}
-
-						if (complete) {
-							context.responseSender().sendPacket(SyncCompletePayload.INSTANCE);
-						}
-					});
+			final PendingHash pending = pendingHash;
+			final byte[] hash = pending != null && pending.handler() == context.networkHandler() ? pending.hash() : null;
+			final NbtCompound[] cachedNbt = new NbtCompound[1];
+
+			CompletableFuture<Boolean> future = RegistrySyncManager.receivePacket(context.client(), packetHandler, payload, RegistrySyncManager.DEBUG || !context.client().isSingleplayer(), map -> {
+				if (hash != null) {
+					// Serialize before the map is applied, as applying it adds the client only entries.
+					cachedNbt[0] = RegistryMapSerializer.toNbt(map);
+				}
+			});
+
+			handleResult(future.thenApply(complete -> {
+				if (complete && cachedNbt[0] != null) {
+					pendingHash = null;
+					CompletableFuture.runAsync(() -> RegistrySyncCache.write(hash, cachedNbt[0]));
+				}
+
+				return complete;
+			}), context.client(), context.responseSender());
 		});
 	}
 
+	private void handleResult(CompletableFuture<Boolean> future, Minecraft client, PacketSender responseSender) {
+		future.whenComplete((complete, throwable) -> {
+			if (throwable != null) {
+				LOGGER.error("Registry remapping failed!", throwable);
+				client.execute(() -> responseSender.disconnect(getText(throwable)));
+				return;
+			}
+
+			if (complete) {
+				responseSender.sendPacket(SyncCompletePayload.INSTANCE);
+			}
+		});
+	}
+
+	private record PendingHash(ClientConfigurationNetworkHandler handler, byte[] hash) {
+	}
+
 	private Text getText(Throwable e) {
 		if (e instanceof RemapException remapException) {
 			final Text text = remapException.getComponent();
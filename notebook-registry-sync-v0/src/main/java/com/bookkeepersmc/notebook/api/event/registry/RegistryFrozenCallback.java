@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.api.event.registry;
+
+import java.util.List;
+
+import net.minecraft.registry.Registry;
+import net.minecraft.util.Identifier;
+
+import com.bookkeepersmc.notebook.api.event.Event;
+import com.bookkeepersmc.notebook.impl.registry.sync.ListenableRegistry;
+
+/**
+ * Invoked once when a registry is frozen, with every entry added since it was created or last frozen.
+ *
+ * <p>Prefer this over {@link RegistryEntryAddedCallback} when building lookup tables from the entries of a registry,
+ * as the table can be built in a single pass once registration is closed.
+ */
+@FunctionalInterface
+public interface RegistryFrozenCallback<T> {
+	/**
+	 * @param addedEntries the added entries in ascending raw id order; raw ids without an entry are skipped,
+	 *                     so use {@link Entry#rawId()} rather than the list index
+	 */
+	void onRegistryFrozen(List<Entry<T>> addedEntries);
+
+	record Entry<T>(int rawId, Identifier id, T object) {
+	}
+
+	static <T> Event<RegistryFrozenCallback<T>> event(Registry<T> registry) {
+		return ListenableRegistry.get(registry).notebook_getFrozenEvent();
+	}
+}
@@ -42,7 +42,22 @@ public interface RegistryIdRemapCallback<T> {
 		Identifier getIdFromNew(int newSyncId);
 	}
 
+	/**
+	 * A variant of the remap callback only receiving the raw ids that changed, invoked after {@link RegistryIdRemapCallback}.
+	 */
+	@FunctionalInterface
+	interface Delta<T> {
+		/**
+		 * @param delta the new raw id of every entry whose raw id changed, keyed by its old raw id
+		 */
+		void onRemap(Int2IntMap delta);
+	}
+
 	static <T> Event<RegistryIdRemapCallback<T>> event(Registry<T> registry) {
 		return ListenableRegistry.get(registry).notebook_getRemapEvent();
 	}
+
+	static <T> Event<Delta<T>> deltaEvent(Registry<T> registry) {
+		return ListenableRegistry.get(registry).notebook_getDeltaRemapEvent();
+	}
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.registry.sync;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.minecraft.registry.Registry;
+
+/**
+ * Caches the serialized entries of the synced dynamic registries, so that they are serialized once per set of
+ * common known packs instead of once per joining client.
+ *
+ * <p>The server's dynamic registries do not change after they are loaded, a new world creates new registry instances,
+ * so the cache is keyed by the registry instance and only holds on to it weakly.
+ */
+public final class DynamicRegistrySyncCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DynamicRegistrySyncCache.class);
+	private static final boolean ENABLED = !Boolean.getBoolean("notebook.registry.disableDynamicSyncCache");
+	// Clients usually share the same few sets of known packs.
+	private static final int MAX_KNOWN_PACK_SETS = 8;
+
+	private static final Map<Registry<?>, Map<Set<?>, List<?>>> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private DynamicRegistrySyncCache() { }
+
+	/**
+	 * @return the serialized entries of the registry for the given common known packs, or {@code null} if they were not serialized yet
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public static <E> List<E> get(Registry<?> registry, Set<?> knownPacks) {
+		if (!ENABLED) {
+			return null;
+		}
+
+		synchronized (CACHE) {
+			final Map<Set<?>, List<?>> entries = CACHE.get(registry);
+			return entries == null ? null : (List<E>) entries.get(knownPacks);
+		}
+	}
+
+	/**
+	 * Wraps the callback receiving the serialized entries of the registry, so that they are cached before being sent.
+	 */
+	public static <K, E> BiConsumer<K, List<E>> wrap(Registry<?> registry, Set<?> knownPacks, BiConsumer<K, List<E>> callback) {
+		if (!ENABLED) {
+			return callback;
+		}
+
+		final Set<?> key = Set.copyOf(knownPacks);
+		final long start = System.nanoTime();
+
+		return (registryKey, entries) -> {
+			final List<E> cached = List.copyOf(entries);
+			LOGGER.debug("Serialized {} synced entries of {} in {} ms", cached.size(), registryKey, (System.nanoTime() - start) / 1_000_000D);
+
+			synchronized (CACHE) {
+				CACHE.computeIfAbsent(registry, r -> new LinkedHashMap<>(16, 0.75F, true) {
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<Set<?>, List<?>> eldest) {
+						return size() > MAX_KNOWN_PACK_SETS;
+					}
+				}).put(key, cached);
+			}
+
+			callback.accept(registryKey, cached);
+		};
+	}
+}
@@ -26,6 +26,7 @@ import net.minecraft.registry.Registry;
 
 import com.bookkeepersmc.notebook.api.event.Event;
 import com.bookkeepersmc.notebook.api.event.registry.RegistryEntryAddedCallback;
+import com.bookkeepersmc.notebook.api.event.registry.RegistryFrozenCallback;
 import com.bookkeepersmc.notebook.api.event.registry.RegistryIdRemapCallback;
 
 public interface ListenableRegistry<T> {
@@ -33,6 +34,10 @@ public interface ListenableRegistry<T> {
 
 	Event<RegistryIdRemapCallback<T>> notebook_getRemapEvent();
 
+	Event<RegistryIdRemapCallback.Delta<T>> notebook_getDeltaRemapEvent();
+
+	Event<RegistryFrozenCallback<T>> notebook_getFrozenEvent();
+
 	@SuppressWarnings("unchecked")
 	static <T> ListenableRegistry<T> get(Registry<T> registry) {
 		if (!(registry instanceof ListenableRegistry)) {
@@ -45,7 +45,11 @@ public final class RegistryAttributeImpl implements RegistryAttributeHolder {
 
 	@Override
 	public RegistryAttributeHolder addAttribute(RegistryAttribute attribute) {
-		attributes.add(attribute);
+		if (attributes.add(attribute)) {
+			// The set of synced registries may have changed
+			RegistrySyncManager.invalidateSyncCache();
+		}
+
 		return this;
 	}
 
@@ -30,6 +30,7 @@ import com.bookkeepersmc.notebook.api.event.registry.RegistryAttributeHolder;
 import com.bookkeepersmc.notebook.api.networking.v1.PayloadTypeRegistry;
 import com.bookkeepersmc.notebook.api.networking.v1.ServerConfigurationConnectionEvents;
 import com.bookkeepersmc.notebook.api.networking.v1.ServerConfigurationNetworking;
+import com.bookkeepersmc.notebook.impl.registry.sync.packet.CompactRegistryPacketHandler;
 import com.bookkeepersmc.notebook.impl.registry.sync.packet.DirectRegistryPacketHandler;
 
 
@@ -38,8 +39,14 @@ public class RegistrySyncInit implements ModInitializer {
 	public void onInitialize() {
 		PayloadTypeRegistry.configurationC2S().register(SyncCompletePayload.TYPE, SyncCompletePayload.CODEC);
 		PayloadTypeRegistry.configurationS2C().register(DirectRegistryPacketHandler.Payload.TYPE, DirectRegistryPacketHandler.Payload.CODEC);
+		PayloadTypeRegistry.configurationS2C().register(CompactRegistryPacketHandler.Payload.TYPE, CompactRegistryPacketHandler.Payload.CODEC);
+		PayloadTypeRegistry.configurationS2C().register(SyncHashPayload.TYPE, SyncHashPayload.CODEC);
+		PayloadTypeRegistry.configurationC2S().register(SyncHashResponsePayload.TYPE, SyncHashResponsePayload.CODEC);
 
 		ServerConfigurationConnectionEvents.BEFORE_CONFIGURE.register(RegistrySyncManager::configureClient);
+		ServerConfigurationNetworking.registerGlobalReceiver(SyncHashResponsePayload.TYPE, (payload, context) -> {
+			RegistrySyncManager.onHashResponse(context.networkHandler(), payload);
+		});
 		ServerConfigurationNetworking.registerGlobalReceiver(SyncCompletePayload.TYPE, (payload, context) -> {
 			context.networkHandler().completeTask(RegistrySyncManager.SyncConfigurationTask.KEY);
 		});
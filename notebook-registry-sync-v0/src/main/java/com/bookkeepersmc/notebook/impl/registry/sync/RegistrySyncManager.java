@@ -26,6 +26,8 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -34,7 +36,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.Sets;
@@ -49,6 +53,7 @@ import org.slf4j.LoggerFactory;
 
 import net.minecraft.network.configuration.ConfigurationTask;
 import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.payload.CustomPayload;
 import net.minecraft.registry.BuiltInRegistries;
 import net.minecraft.registry.Registry;
 import net.minecraft.registry.ResourceKey;
@@ -64,20 +69,34 @@ import net.minecraft.util.thread.ThreadExecutor;
 import com.bookkeepersmc.notebook.api.event.registry.RegistryAttribute;
 import com.bookkeepersmc.notebook.api.event.registry.RegistryAttributeHolder;
 import com.bookkeepersmc.notebook.api.networking.v1.ServerConfigurationNetworking;
+import com.bookkeepersmc.notebook.impl.registry.sync.packet.CompactRegistryPacketHandler;
 import com.bookkeepersmc.notebook.impl.registry.sync.packet.DirectRegistryPacketHandler;
 import com.bookkeepersmc.notebook.impl.registry.sync.packet.RegistryPacketHandler;
+import com.bookkeepersmc.notebook.mixin.registry.sync.ServerConfigurationNetworkHandlerAccessor;
 
 public final class RegistrySyncManager {
 	public static final boolean DEBUG = Boolean.getBoolean("notebook.registry.debug");
 
 	public static final DirectRegistryPacketHandler DIRECT_PACKET_HANDLER = new DirectRegistryPacketHandler();
+	public static final CompactRegistryPacketHandler COMPACT_PACKET_HANDLER = new CompactRegistryPacketHandler();
 
 	private static final Logger LOGGER = LoggerFactory.getLogger("notebookRegistrySync");
 	private static final boolean DEBUG_WRITE_REGISTRY_DATA = Boolean.getBoolean("notebook.registry.debug.writeContentsAsCsv");
 
+	private static final boolean PARALLEL_REMAP = !Boolean.getBoolean("notebook.registry.disableParallelRemap");
+
+	// Length of the SHA-256 hash identifying an encoded registry map.
+	public static final int HASH_LENGTH = 32;
+
 	//Set to true after vanilla's bootstrap has completed
 	public static boolean postBootstrap = false;
 
+	// The registry map and its encoded payloads are identical for every joining client, so they are computed once and shared.
+	// The cache is dropped whenever a registry entry, raw id or registry attribute changes.
+	@Nullable
+	private static volatile SyncCache syncCache;
+	private static final AtomicInteger SYNC_CACHE_GENERATION = new AtomicInteger();
+
 	private RegistrySyncManager() { }
 
 	public static void configureClient(ServerConfigurationNetworkHandler handler, MinecraftServer server) {
@@ -86,30 +105,132 @@ public final class RegistrySyncManager {
 			return;
 		}
 
-		if (!ServerConfigurationNetworking.canSend(handler, DIRECT_PACKET_HANDLER.getPacketId())) {
+		if (!ServerConfigurationNetworking.canSend(handler, DIRECT_PACKET_HANDLER.getPacketId())
+				&& !ServerConfigurationNetworking.canSend(handler, COMPACT_PACKET_HANDLER.getPacketId())) {
 			// Don't send if the client cannot receive
 			return;
 		}
 
-		final Map<Identifier, Object2IntMap<Identifier>> map = RegistrySyncManager.createAndPopulateRegistryMap();
+		final SyncCache cache = getSyncCache();
 
-		if (map == null) {
+		if (cache.map() == null) {
 			// Don't send when there is nothing to map
 			return;
 		}
 
-		handler.addTask(new SyncConfigurationTask(handler, map));
+		handler.addTask(new SyncConfigurationTask(handler, cache));
+	}
+
+	/**
+	 * Called when the client answered the {@link SyncHashPayload}, sends the full registry map if it does not have it cached.
+	 * The map is sent from the same snapshot as the hash, as the client stores it under that hash.
+	 */
+	public static void onHashResponse(ServerConfigurationNetworkHandler handler, SyncHashResponsePayload payload) {
+		if (payload.cached()) {
+			// The client applies its cached map and sends the SyncCompletePayload itself.
+			return;
+		}
+
+		if (((ServerConfigurationNetworkHandlerAccessor) handler).getCurrentTask() instanceof SyncConfigurationTask task) {
+			sendPayloads(handler, task.cache());
+		} else {
+			LOGGER.warn("Received a registry sync hash response outside of the registry sync task");
+		}
+	}
+
+	private static void sendPayloads(ServerConfigurationNetworkHandler handler, SyncCache cache) {
+		// Prefer the compact format, older clients only understand the direct one.
+		final List<? extends CustomPayload> payloads = ServerConfigurationNetworking.canSend(handler, COMPACT_PACKET_HANDLER.getPacketId())
+				? cache.compactPayloads()
+				: cache.payloads();
+
+		for (CustomPayload payload : payloads) {
+			handler.send(ServerConfigurationNetworking.createS2CPacket(payload));
+		}
+	}
+
+	/**
+	 * Gets the registry map to sync and its encoded payloads, computing them if the registries changed since they were last computed.
+	 */
+	public static SyncCache getSyncCache() {
+		SyncCache cache = syncCache;
+
+		if (cache != null && !DEBUG) {
+			return cache;
+		}
+
+		final int generation = SYNC_CACHE_GENERATION.get();
+		final Map<Identifier, Object2IntMap<Identifier>> map = createAndPopulateRegistryMap();
+		final List<DirectRegistryPacketHandler.Payload> payloads = map == null ? List.of() : List.copyOf(DIRECT_PACKET_HANDLER.createPayloads(map));
+		final List<CompactRegistryPacketHandler.Payload> compactPayloads = map == null ? List.of() : List.copyOf(COMPACT_PACKET_HANDLER.createPayloads(map));
+		cache = new SyncCache(map, payloads, compactPayloads, hash(payloads));
+
+		if (DEBUG) {
+			LOGGER.info("Registry sync size: direct {} bytes, compact {} bytes", payloads.stream().mapToInt(p -> p.data().length).sum(), compactPayloads.stream().mapToInt(p -> p.data().length).sum());
+		}
+
+		// Only publish the result when no registry changed while it was being computed.
+		synchronized (SYNC_CACHE_GENERATION) {
+			if (SYNC_CACHE_GENERATION.get() == generation) {
+				syncCache = cache;
+			}
+		}
+
+		return cache;
+	}
+
+	public static void invalidateSyncCache() {
+		synchronized (SYNC_CACHE_GENERATION) {
+			SYNC_CACHE_GENERATION.incrementAndGet();
+			syncCache = null;
+		}
+	}
+
+	private static byte[] hash(List<DirectRegistryPacketHandler.Payload> payloads) {
+		final MessageDigest digest;
+
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+
+		for (DirectRegistryPacketHandler.Payload payload : payloads) {
+			digest.update(payload.data());
+		}
+
+		return digest.digest();
+	}
+
+	/**
+	 * @param map the registry map to sync, {@code null} when there is nothing to sync
+	 * @param payloads the map encoded in the direct format
+	 * @param compactPayloads the map encoded in the compact format
+	 * @param hash the SHA-256 hash of the direct payloads, identifying the map in client side caches
+	 */
+	public record SyncCache(
+			@Nullable Map<Identifier, Object2IntMap<Identifier>> map,
+			List<DirectRegistryPacketHandler.Payload> payloads,
+			List<CompactRegistryPacketHandler.Payload> compactPayloads,
+			byte[] hash
+	) {
 	}
 
 	public record SyncConfigurationTask(
 			ServerConfigurationNetworkHandler handler,
-			Map<Identifier, Object2IntMap<Identifier>> map
+			SyncCache cache
 	) implements ConfigurationTask {
 		public static final Type KEY = new Type("notebook:registry/sync");
 
 		@Override
 		public void start(Consumer<Packet<?>> sender) {
-			DIRECT_PACKET_HANDLER.sendPacket(payload -> handler.send(ServerConfigurationNetworking.createS2CPacket(payload)), map);
+			if (ServerConfigurationNetworking.canSend(handler, SyncHashPayload.TYPE)) {
+				// Let the client check its cache first, the map is sent once it answers.
+				handler.send(ServerConfigurationNetworking.createS2CPacket(new SyncHashPayload(cache.hash())));
+				return;
+			}
+
+			sendPayloads(handler, cache);
 		}
 
 		@Override
@@ -119,6 +240,13 @@ public final class RegistrySyncManager {
 	}
 
 	public static <T extends RegistryPacketHandler.RegistrySyncPayload> CompletableFuture<Boolean> receivePacket(ThreadExecutor<?> executor, RegistryPacketHandler<T> handler, T payload, boolean accept) {
+		return receivePacket(executor, handler, payload, accept, null);
+	}
+
+	/**
+	 * @param mapConsumer called with the received map before it is applied, as applying it may modify it
+	 */
+	public static <T extends RegistryPacketHandler.RegistrySyncPayload> CompletableFuture<Boolean> receivePacket(ThreadExecutor<?> executor, RegistryPacketHandler<T> handler, T payload, boolean accept, @Nullable Consumer<Map<Identifier, Object2IntMap<Identifier>>> mapConsumer) {
 		handler.receivePayload(payload);
 
 		if (!handler.isPacketFinished()) {
@@ -138,6 +266,17 @@ public final class RegistrySyncManager {
 			return CompletableFuture.completedFuture(true);
 		}
 
+		if (map != null && mapConsumer != null) {
+			mapConsumer.accept(map);
+		}
+
+		return applyRemote(executor, map);
+	}
+
+	/**
+	 * Applies a registry map received from the server on the given executor.
+	 */
+	public static CompletableFuture<Boolean> applyRemote(ThreadExecutor<?> executor, @Nullable Map<Identifier, Object2IntMap<Identifier>> map) {
 		return executor.submit(() -> {
 			if (map == null) {
 				throw new CompletionException(new RemapException("Received null map in sync packet!"));
@@ -265,7 +404,9 @@ public final class RegistrySyncManager {
 			checkRemoteRemap(map);
 		}
 
+		final long start = System.nanoTime();
 		Set<Identifier> containedRegistries = Sets.newHashSet(map.keySet());
+		List<CompletableFuture<Runnable>> remaps = new ArrayList<>();
 
 		for (Identifier registryId : BuiltInRegistries.ROOT.getIds()) {
 			if (!containedRegistries.remove(registryId)) {
@@ -282,18 +423,68 @@ public final class RegistrySyncManager {
 				continue;
 			}
 
-			if (registry instanceof RemappableRegistry remappableRegistry) {
-				remappableRegistry.remap(registryId.toString(), registryMap, mode);
-			} else {
+			if (!(registry instanceof RemappableRegistry remappableRegistry)) {
 				throw new RemapException("Registry " + registryId + " is not remappable");
 			}
+
+			// Registries are remapped independently of each other, only their remap events have to run in order on this thread.
+			Supplier<Runnable> remap = () -> {
+				try {
+					return remappableRegistry.remapDeferred(registryId.toString(), registryMap, mode);
+				} catch (RemapException e) {
+					throw new CompletionException(e);
+				}
+			};
+
+			remaps.add(PARALLEL_REMAP ? CompletableFuture.supplyAsync(remap) : remapNow(remap));
 		}
 
+		int skipped = 0;
+		RemapException exception = null;
+
+		for (CompletableFuture<Runnable> remap : remaps) {
+			final Runnable remapEvent;
+
+			try {
+				remapEvent = remap.join();
+			} catch (CompletionException e) {
+				if (exception == null) {
+					exception = e.getCause() instanceof RemapException remapException ? remapException : new RemapException("Failed to remap registry", e.getCause());
+				}
+
+				continue;
+			}
+
+			// Still notify about registries that were remapped, even if another one failed.
+			if (remapEvent == null) {
+				skipped++;
+			} else {
+				remapEvent.run();
+			}
+		}
+
+		if (exception != null) {
+			throw exception;
+		}
+
+		LOGGER.debug("Remapped {} registries ({} already matching) in {} ms", remaps.size(), skipped, (System.nanoTime() - start) / 1_000_000);
+
 		if (!containedRegistries.isEmpty()) {
 			LOGGER.warn("[notebook-registry-sync] Could not find the following registries: " + Joiner.on(", ").join(containedRegistries));
 		}
 	}
 
+	// Runs the remap on this thread, failing the future the same way supplyAsync would so both modes report errors alike.
+	private static CompletableFuture<Runnable> remapNow(Supplier<Runnable> remap) {
+		try {
+			return CompletableFuture.completedFuture(remap.get());
+		} catch (CompletionException e) {
+			return CompletableFuture.failedFuture(e.getCause());
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
 	@VisibleForTesting
 	public static void checkRemoteRemap(Map<Identifier, Object2IntMap<Identifier>> map) throws RemapException {
 		Map<Identifier, List<Identifier>> missingEntries = new HashMap<>();
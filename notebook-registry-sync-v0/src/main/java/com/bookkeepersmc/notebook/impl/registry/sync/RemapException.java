@@ -35,6 +35,11 @@ public class RemapException extends Exception {
 		this.component = null;
 	}
 
+	public RemapException(String message, Throwable cause) {
+		super(message, cause);
+		this.component = null;
+	}
+
 	public RemapException(Text component) {
 		super(component.getString());
 		this.component = component;
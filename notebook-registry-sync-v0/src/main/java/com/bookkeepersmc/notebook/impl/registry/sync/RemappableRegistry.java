@@ -23,6 +23,7 @@
 package com.bookkeepersmc.notebook.impl.registry.sync;
 
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.util.Identifier;
 
@@ -38,5 +39,14 @@ public interface RemappableRegistry {
 
 	void remap(String name, Object2IntMap<Identifier> remoteIndexedEntries, RemapMode mode) throws RemapException;
 
+	/**
+	 * Remaps the registry like {@link #remap}, but returns the invocation of the remap event instead of invoking it.
+	 * This allows remapping registries in parallel, while their events are still invoked in order on a single thread.
+	 *
+	 * @return the remap event invocation, or {@code null} if the registry already matched the given ids and was left untouched
+	 */
+	@Nullable
+	Runnable remapDeferred(String name, Object2IntMap<Identifier> remoteIndexedEntries, RemapMode mode) throws RemapException;
+
 	void unmap(String name) throws RemapException;
 }
@@ -22,6 +22,9 @@
  */
 package com.bookkeepersmc.notebook.impl.registry.sync;
 
+import java.util.Collection;
+import java.util.List;
+
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 
 public interface RemovableIdList<T> {
@@ -30,4 +33,6 @@ public interface RemovableIdList<T> {
 	void notebook_removeId(int i);
 	void notebook_remapId(int from, int to);
 	void notebook_remapIds(Int2IntMap map);
+	void notebook_insert(int index, Collection<T> objects);
+	void notebook_setRange(int start, List<T> objects);
 }
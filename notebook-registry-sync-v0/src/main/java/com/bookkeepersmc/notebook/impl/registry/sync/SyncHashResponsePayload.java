@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.registry.sync;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.payload.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * Answer to a {@link SyncHashPayload}. When {@code cached} is false the server sends the full registry map,
+ * otherwise the client applies its cached copy and completes the sync on its own.
+ */
+public record SyncHashResponsePayload(boolean cached) implements CustomPayload {
+	public static final CustomPayload.Id<SyncHashResponsePayload> TYPE = new CustomPayload.Id<>(Identifier.of("notebook", "registry/sync/hash_response"));
+	public static final PacketCodec<PacketByteBuf, SyncHashResponsePayload> CODEC = CustomPayload.create(SyncHashResponsePayload::write, SyncHashResponsePayload::new);
+
+	private SyncHashResponsePayload(PacketByteBuf buf) {
+		this(buf.readBoolean());
+	}
+
+	private void write(PacketByteBuf buf) {
+		buf.writeBoolean(cached);
+	}
+
+	@Override
+	public Id<? extends CustomPayload> getId() {
+		return TYPE;
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.registry.sync;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtTagSizeTracker;
+import net.minecraft.util.Identifier;
+
+/**
+ * Stores the raw ids of the modded registries alongside a world save, so that a world keeps its id layout across sessions
+ * even when the registration order changes.
+ */
+public final class WorldRegistryIds {
+	private static final Logger LOGGER = LoggerFactory.getLogger(WorldRegistryIds.class);
+
+	// The map last read from or written to the current world, used to skip writing it again when nothing changed.
+	@Nullable
+	private static Map<Identifier, Object2IntMap<Identifier>> savedMap;
+
+	private WorldRegistryIds() { }
+
+	private static Path getPath(Path worldDirectory) {
+		return worldDirectory.resolve("data").resolve("notebook").resolve("registry_ids.dat");
+	}
+
+	/**
+	 * Restores the raw ids saved with the world, skipping the remap when they already match the current ones.
+	 */
+	public static void load(Path worldDirectory) {
+		load(worldDirectory, () -> RegistrySyncManager.getSyncCache().map(), map -> RegistrySyncManager.apply(map, RemappableRegistry.RemapMode.AUTHORITATIVE));
+	}
+
+	@VisibleForTesting
+	static void load(Path worldDirectory, Supplier<Map<Identifier, Object2IntMap<Identifier>>> current, Remapper remapper) {
+		savedMap = null;
+		final Path path = getPath(worldDirectory);
+
+		if (!Files.isRegularFile(path)) {
+			return;
+		}
+
+		final long start = System.nanoTime();
+		final Map<Identifier, Object2IntMap<Identifier>> map;
+
+		try {
+			final NbtCompound nbt = NbtIo.readCompressed(path, NbtTagSizeTracker.createWithUnlimitedBytes());
+
+			if (nbt.getInt("version") != RegistryMapSerializer.VERSION) {
+				LOGGER.warn("Ignoring saved registry ids with unsupported version {}", nbt.getInt("version"));
+				return;
+			}
+
+			map = RegistryMapSerializer.fromNbt(nbt);
+		} catch (Exception e) {
+			LOGGER.error("Failed to read saved registry ids from {}", path, e);
+			return;
+		}
+
+		if (matches(map, current.get())) {
+			LOGGER.debug("Saved registry ids match the current ones, skipping remap");
+			savedMap = map;
+			return;
+		}
+
+		try {
+			remapper.apply(map);
+		} catch (RemapException e) {
+			LOGGER.error("Failed to restore the saved registry ids", e);
+			return;
+		}
+
+		LOGGER.debug("Restored saved registry ids in {} ms", (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Saves the current raw ids with the world, if they changed since they were last loaded or saved.
+	 */
+	public static void save(Path worldDirectory) {
+		save(worldDirectory, RegistrySyncManager.getSyncCache().map());
+	}
+
+	@VisibleForTesting
+	static void save(Path worldDirectory, @Nullable Map<Identifier, Object2IntMap<Identifier>> map) {
+		if (map == null || map.equals(savedMap)) {
+			return;
+		}
+
+		final Path path = getPath(worldDirectory);
+
+		try {
+			Files.createDirectories(path.getParent());
+			final Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+			NbtIo.writeCompressed(RegistryMapSerializer.toNbt(map), tempPath);
+			Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+			savedMap = map;
+		} catch (IOException e) {
+			LOGGER.error("Failed to save registry ids to {}", path, e);
+		}
+	}
+
+	private static boolean matches(Map<Identifier, Object2IntMap<Identifier>> map, @Nullable Map<Identifier, Object2IntMap<Identifier>> current) {
+		if (current == null) {
+			return map.isEmpty();
+		}
+
+		for (Map.Entry<Identifier, Object2IntMap<Identifier>> entry : map.entrySet()) {
+			final Object2IntMap<Identifier> currentIds = current.get(entry.getKey());
+
+			// Registries that are no longer modded are not remapped either way.
+			if (currentIds != null && !currentIds.equals(entry.getValue())) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@FunctionalInterface
+	interface Remapper {
+		void apply(Map<Identifier, Object2IntMap<Identifier>> map) throws RemapException;
+	}
+}
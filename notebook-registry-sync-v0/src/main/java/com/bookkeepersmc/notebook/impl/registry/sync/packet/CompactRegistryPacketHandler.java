@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.registry.sync.packet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.payload.CustomPayload;
+import net.minecraft.util.Identifier;
+
+import com.bookkeepersmc.notebook.api.networking.v1.ByteBufUtils;
+
+/**
+ * A more compact version of the {@link DirectRegistryPacketHandler} format, sent to clients that can receive it.
+ *
+ * <p>Each registry is written as a length prefixed block, so the client decodes every registry as soon as its bytes arrive.
+ * Entry paths are sorted and front-coded per namespace: each path only stores the length of the prefix it shares with the
+ * previous path and the remaining suffix. Raw ids are stored as zigzag encoded deltas from the previous entry.
+ * The whole encoded map is then deflated as one stream, unless it is tiny or {@code notebook.registry.compact.disableCompression} is set.
+ * Either way it is prefixed with its format and its size before deflating, which the client checks once the last slice arrived.
+ */
+public class CompactRegistryPacketHandler extends RegistryPacketHandler<CompactRegistryPacketHandler.Payload> {
+	private static final int MAX_PAYLOAD_SIZE = Integer.getInteger("notebook.registry.direct.maxPayloadSize", 0x100000);
+	private static final int MAX_INFLATED_SIZE = Integer.getInteger("notebook.registry.compact.maxInflatedSize", 0x4000000);
+	private static final boolean COMPRESS = !Boolean.getBoolean("notebook.registry.compact.disableCompression");
+	private static final int COMPRESSION_THRESHOLD = 256;
+
+	private static final byte UNCOMPRESSED = 0;
+	private static final byte DEFLATED = 1;
+
+	// Decompressed bytes that were not decoded yet.
+	@Nullable
+	private PacketByteBuf decodedBuf;
+	@Nullable
+	private Inflater inflater;
+	private final byte[] inflateBuffer = new byte[8192];
+	private boolean headerRead = false;
+	private int declaredSize = 0;
+	private int receivedBytes = 0;
+	private int decodedBytes = 0;
+
+	@Nullable
+	private Map<Identifier, Object2IntMap<Identifier>> syncedRegistryMap;
+
+	private boolean isPacketFinished = false;
+	private int totalPacketReceived = 0;
+
+	@Override
+	public CustomPayload.Id<CompactRegistryPacketHandler.Payload> getPacketId() {
+		return Payload.TYPE;
+	}
+
+	@Override
+	public List<CompactRegistryPacketHandler.Payload> createPayloads(Map<Identifier, Object2IntMap<Identifier>> registryMap) {
+		PacketByteBuf buf = ByteBufUtils.create();
+		PacketByteBuf block = ByteBufUtils.create();
+
+		registryMap.forEach((regId, idMap) -> {
+			block.clear();
+			block.writeString(optimizeNamespace(regId.getNamespace()));
+			block.writeString(regId.getPath());
+
+			Map<String, List<Object2IntMap.Entry<Identifier>>> idNamespaceGroups = idMap.object2IntEntrySet().stream()
+					.collect(Collectors.groupingBy(e -> e.getKey().getNamespace(), LinkedHashMap::new, Collectors.toCollection(ArrayList::new)));
+
+			block.writeVarInt(idNamespaceGroups.size());
+
+			for (Map.Entry<String, List<Object2IntMap.Entry<Identifier>>> idNamespaceEntry : idNamespaceGroups.entrySet()) {
+				// Sort the paths so that neighbours share the longest possible prefix.
+				List<Object2IntMap.Entry<Identifier>> idPairs = idNamespaceEntry.getValue();
+				idPairs.sort(Comparator.comparing(e -> e.getKey().getPath()));
+
+				block.writeString(optimizeNamespace(idNamespaceEntry.getKey()));
+				block.writeVarInt(idPairs.size());
+
+				String lastPath = "";
+				int lastRawId = 0;
+
+				for (Object2IntMap.Entry<Identifier> idPair : idPairs) {
+					String path = idPair.getKey().getPath();
+					int prefixLength = commonPrefixLength(lastPath, path);
+
+					block.writeVarInt(prefixLength);
+					block.writeString(path.substring(prefixLength));
+					block.writeVarInt(zigzag(idPair.getIntValue() - lastRawId));
+
+					lastPath = path;
+					lastRawId = idPair.getIntValue();
+				}
+			}
+
+			buf.writeVarInt(block.readableBytes());
+			buf.writeBytes(block);
+		});
+
+		block.release();
+		return split(compress(buf), MAX_PAYLOAD_SIZE, Payload::new);
+	}
+
+	@Override
+	public void receivePayload(Payload payload) {
+		Preconditions.checkState(!isPacketFinished);
+		totalPacketReceived++;
+
+		if (decodedBuf == null) {
+			decodedBuf = ByteBufUtils.create();
+			syncedRegistryMap = new LinkedHashMap<>();
+		}
+
+		byte[] data = payload.data();
+
+		if (data.length == 0) {
+			finish();
+			return;
+		}
+
+		receivedBytes += data.length;
+		int offset = 0;
+
+		if (!headerRead) {
+			PacketByteBuf header = new PacketByteBuf(Unpooled.wrappedBuffer(data));
+			byte format = header.readByte();
+			declaredSize = header.readVarInt();
+			Preconditions.checkState(declaredSize >= 0 && declaredSize <= MAX_INFLATED_SIZE, "Invalid registry sync size %s", declaredSize);
+
+			if (format == DEFLATED) {
+				inflater = new Inflater();
+			} else {
+				Preconditions.checkState(format == UNCOMPRESSED, "Unknown registry sync compression format %s", format);
+			}
+
+			offset = header.readerIndex();
+			headerRead = true;
+		}
+
+		if (inflater != null) {
+			inflate(data, offset);
+		} else {
+			decodedBytes += data.length - offset;
+			Preconditions.checkState(decodedBytes <= declaredSize, "Registry sync data exceeds its declared size %s", declaredSize);
+			decodedBuf.writeBytes(data, offset, data.length - offset);
+		}
+
+		decodeAvailable();
+	}
+
+	private void inflate(byte[] data, int offset) {
+		inflater.setInput(data, offset, data.length - offset);
+
+		try {
+			while (!inflater.finished()) {
+				int length = inflater.inflate(inflateBuffer);
+
+				if (length == 0) {
+					Preconditions.checkState(!inflater.needsDictionary(), "Registry sync data needs a deflate dictionary");
+					// Wait for the next slice.
+					break;
+				}
+
+				decodedBytes += length;
+				Preconditions.checkState(decodedBytes <= declaredSize, "Inflated registry sync data exceeds its declared size %s", declaredSize);
+				decodedBuf.writeBytes(inflateBuffer, 0, length);
+			}
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Failed to inflate registry sync data", e);
+		}
+	}
+
+	/**
+	 * Decodes every registry block whose bytes are complete and releases the consumed bytes.
+	 */
+	private void decodeAvailable() {
+		while (decodedBuf.isReadable()) {
+			int readerIndex = decodedBuf.readerIndex();
+			int length;
+
+			try {
+				length = decodedBuf.readVarInt();
+			} catch (IndexOutOfBoundsException e) {
+				// The length itself is split across slices.
+				decodedBuf.readerIndex(readerIndex);
+				break;
+			}
+
+			if (decodedBuf.readableBytes() < length) {
+				decodedBuf.readerIndex(readerIndex);
+				break;
+			}
+
+			decodeRegistry(new PacketByteBuf(decodedBuf.readSlice(length)));
+		}
+
+		decodedBuf.discardSomeReadBytes();
+	}
+
+	private void decodeRegistry(PacketByteBuf buf) {
+		String regNamespace = unoptimizeNamespace(buf.readString());
+		String regPath = buf.readString();
+		Object2IntMap<Identifier> idMap = new Object2IntLinkedOpenHashMap<>();
+		int idNamespaceGroupAmount = buf.readVarInt();
+
+		for (int k = 0; k < idNamespaceGroupAmount; k++) {
+			String idNamespace = unoptimizeNamespace(buf.readString());
+			int idAmount = buf.readVarInt();
+
+			String lastPath = "";
+			int lastRawId = 0;
+
+			for (int l = 0; l < idAmount; l++) {
+				int prefixLength = buf.readVarInt();
+				String path = lastPath.substring(0, prefixLength) + buf.readString();
+				int rawId = lastRawId + unzigzag(buf.readVarInt());
+
+				idMap.put(Identifier.of(idNamespace, path), rawId);
+
+				lastPath = path;
+				lastRawId = rawId;
+			}
+		}
+
+		Preconditions.checkState(!buf.isReadable(), "Trailing data in registry %s:%s", regNamespace, regPath);
+		syncedRegistryMap.put(Identifier.of(regNamespace, regPath), idMap);
+	}
+
+	private void finish() {
+		isPacketFinished = true;
+
+		try {
+			Preconditions.checkState(headerRead && (inflater == null || inflater.finished()), "Registry sync data ended early");
+			Preconditions.checkState(decodedBytes == declaredSize, "Registry sync data does not match its declared size %s", declaredSize);
+			Preconditions.checkState(!decodedBuf.isReadable(), "Registry sync data ended early");
+			setBufSize(decodedBytes, receivedBytes);
+		} finally {
+			if (inflater != null) {
+				inflater.end();
+				inflater = null;
+			}
+
+			decodedBuf.release();
+			decodedBuf = null;
+			headerRead = false;
+			declaredSize = 0;
+			receivedBytes = 0;
+			decodedBytes = 0;
+		}
+	}
+
+	@Override
+	public boolean isPacketFinished() {
+		return isPacketFinished;
+	}
+
+	@Override
+	public int getTotalPacketReceived() {
+		Preconditions.checkState(isPacketFinished);
+		return totalPacketReceived;
+	}
+
+	@Override
+	@Nullable
+	public Map<Identifier, Object2IntMap<Identifier>> getSyncedRegistryMap() {
+		Preconditions.checkState(isPacketFinished);
+		Map<Identifier, Object2IntMap<Identifier>> map = syncedRegistryMap;
+		isPacketFinished = false;
+		totalPacketReceived = 0;
+		syncedRegistryMap = null;
+		return map;
+	}
+
+	private static int commonPrefixLength(String a, String b) {
+		int length = Math.min(a.length(), b.length());
+
+		for (int i = 0; i < length; i++) {
+			if (a.charAt(i) != b.charAt(i)) {
+				return i;
+			}
+		}
+
+		return length;
+	}
+
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Prefixes the encoded map with its compression format and size, deflating it when worthwhile. The given buffer is released.
+	 */
+	private static PacketByteBuf compress(PacketByteBuf buf) {
+		int size = buf.readableBytes();
+		PacketByteBuf out = ByteBufUtils.create();
+
+		if (!COMPRESS || size < COMPRESSION_THRESHOLD) {
+			out.writeByte(UNCOMPRESSED);
+			out.writeVarInt(size);
+			out.writeBytes(buf);
+			buf.release();
+			return out;
+		}
+
+		byte[] input = new byte[size];
+		buf.readBytes(input);
+		buf.release();
+
+		out.writeByte(DEFLATED);
+		out.writeVarInt(size);
+
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		byte[] deflateBuffer = new byte[8192];
+		deflater.setInput(input);
+		deflater.finish();
+
+		while (!deflater.finished()) {
+			int length = deflater.deflate(deflateBuffer);
+			out.writeBytes(deflateBuffer, 0, length);
+		}
+
+		deflater.end();
+		return out;
+	}
+
+	public record Payload(byte[] data) implements RegistrySyncPayload {
+		public static CustomPayload.Id<Payload> TYPE = new Id<>(Identifier.of("notebook", "registry/sync/compact"));
+		public static PacketCodec<PacketByteBuf, Payload> CODEC = CustomPayload.create(Payload::write, Payload::new);
+
+		Payload(PacketByteBuf buf) {
+			this(readAllBytes(buf));
+		}
+
+		private void write(PacketByteBuf buf) {
+			buf.writeBytes(data);
+		}
+
+		private static byte[] readAllBytes(PacketByteBuf buf) {
+			byte[] bytes = new byte[buf.readableBytes()];
+			buf.readBytes(bytes);
+			return bytes;
+		}
+
+		@Override
+		public Id<? extends CustomPayload> getId() {
+			return TYPE;
+		}
+	}
+}
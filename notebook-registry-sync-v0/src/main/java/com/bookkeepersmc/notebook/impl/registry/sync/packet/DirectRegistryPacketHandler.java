@@ -28,7 +28,6 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Preconditions;
@@ -42,12 +41,16 @@ import net.minecraft.network.packet.payload.CustomPayload;
 import net.minecraft.util.Identifier;
 
 import com.bookkeepersmc.notebook.api.networking.v1.ByteBufUtils;
+import com.bookkeepersmc.notebook.impl.registry.sync.RegistrySyncManager;
 
 public class DirectRegistryPacketHandler extends RegistryPacketHandler<DirectRegistryPacketHandler.Payload> {
 	private static final int MAX_PAYLOAD_SIZE = Integer.getInteger("notebook.registry.direct.maxPayloadSize", 0x100000);
 
 	@Nullable
 	private PacketByteBuf combinedBuf;
+	// Copy of every received byte, only kept in debug mode to compute the buffer sizes.
+	@Nullable
+	private PacketByteBuf debugBuf;
 
 	@Nullable
 	private Map<Identifier, Object2IntMap<Identifier>> syncedRegistryMap;
@@ -55,13 +58,31 @@ public class DirectRegistryPacketHandler extends RegistryPacketHandler<DirectReg
 	private boolean isPacketFinished = false;
 	private int totalPacketReceived = 0;
 
+	// Decoding state, kept between slices so that decoding resumes at the entry the last slice ended in.
+	// -1 until the amount of namespace groups has been read.
+	private int regNamespaceGroupsLeft = -1;
+	@Nullable
+	private String regNamespace;
+	private int regNamespaceGroupLeft = 0;
+	// The registry being decoded, null between registries.
+	@Nullable
+	private Identifier regId;
+	@Nullable
+	private Object2IntMap<Identifier> idMap;
+	private int idNamespaceGroupsLeft = 0;
+	@Nullable
+	private String idNamespace;
+	private int rawIdBulksLeft = 0;
+	private int bulkLeft = 0;
+	private int lastRawId = 0;
+
 	@Override
 	public CustomPayload.Id<DirectRegistryPacketHandler.Payload> getPacketId() {
 		return Payload.TYPE;
 	}
 
 	@Override
-	public void sendPacket(Consumer<DirectRegistryPacketHandler.Payload> sender, Map<Identifier, Object2IntMap<Identifier>> registryMap) {
+	public List<DirectRegistryPacketHandler.Payload> createPayloads(Map<Identifier, Object2IntMap<Identifier>> registryMap) {
 		PacketByteBuf buf = ByteBufUtils.create();
 
 		// Group registry ids with same namespace.
@@ -133,19 +154,8 @@ public class DirectRegistryPacketHandler extends RegistryPacketHandler<DirectReg
 			}
 		});
 
-		// Split the packet to multiple MAX_PAYLOAD_SIZEd buffers.
-		int readableBytes = buf.readableBytes();
-		int sliceIndex = 0;
-
-		while (sliceIndex < readableBytes) {
-			int sliceSize = Math.min(readableBytes - sliceIndex, MAX_PAYLOAD_SIZE);
-			PacketByteBuf slicedBuf = ByteBufUtils.slice(buf, sliceIndex, sliceSize);
-			sender.accept(createPayload(slicedBuf));
-			sliceIndex += sliceSize;
-		}
-
-		// Send an empty buffer to mark the end of the split.
-		sender.accept(createPayload(ByteBufUtils.empty()));
+		// Split the packet to multiple MAX_PAYLOAD_SIZEd payloads.
+		return split(buf, MAX_PAYLOAD_SIZE, Payload::new);
 	}
 
 	@Override
@@ -155,58 +165,196 @@ public class DirectRegistryPacketHandler extends RegistryPacketHandler<DirectReg
 
 		if (combinedBuf == null) {
 			combinedBuf = ByteBufUtils.create();
+			syncedRegistryMap = new LinkedHashMap<>();
+
+			if (RegistrySyncManager.DEBUG) {
+				debugBuf = ByteBufUtils.create();
+			}
 		}
 
 		byte[] data = payload.data();
+		boolean decoded = false;
 
-		if (data.length != 0) {
-			combinedBuf.writeBytes(data);
-			return;
-		}
+		try {
+			if (data.length != 0) {
+				combinedBuf.writeBytes(data);
 
-		isPacketFinished = true;
+				if (debugBuf != null) {
+					debugBuf.writeBytes(data);
+				}
 
-		computeBufSize(combinedBuf);
-		syncedRegistryMap = new LinkedHashMap<>();
-		int regNamespaceGroupAmount = combinedBuf.readVarInt();
+				// Decode everything that is complete so far, so that decoding overlaps the transfer.
+				decodeAvailable();
+				// Release the consumed bytes.
+				combinedBuf.discardSomeReadBytes();
+				decoded = true;
+				return;
+			}
 
-		for (int i = 0; i < regNamespaceGroupAmount; i++) {
-			String regNamespace = unoptimizeNamespace(combinedBuf.readString());
-			int regNamespaceGroupLength = combinedBuf.readVarInt();
+			Preconditions.checkState(decodeAvailable(), "Registry sync data ended early");
 
-			for (int j = 0; j < regNamespaceGroupLength; j++) {
-				String regPath = combinedBuf.readString();
-				Object2IntMap<Identifier> idMap = new Object2IntLinkedOpenHashMap<>();
-				int idNamespaceGroupAmount = combinedBuf.readVarInt();
+			if (debugBuf != null) {
+				computeBufSize(debugBuf);
+			}
 
-				int lastBulkLastRawId = 0;
+			isPacketFinished = true;
+			decoded = true;
+		} finally {
+			if (isPacketFinished || !decoded) {
+				// Either done, or the data could not be decoded and the next sync has to start from scratch.
+				reset(decoded);
+			}
+		}
+	}
+
+	private void reset(boolean keepResult) {
+		if (debugBuf != null) {
+			debugBuf.release();
+			debugBuf = null;
+		}
 
-				for (int k = 0; k < idNamespaceGroupAmount; k++) {
-					String idNamespace = unoptimizeNamespace(combinedBuf.readString());
-					int rawIdBulkAmount = combinedBuf.readVarInt();
+		if (combinedBuf != null) {
+			combinedBuf.release();
+			combinedBuf = null;
+		}
 
-					for (int l = 0; l < rawIdBulkAmount; l++) {
-						int bulkRawIdStartDiff = combinedBuf.readVarInt();
-						int bulkSize = combinedBuf.readVarInt();
+		if (!keepResult) {
+			syncedRegistryMap = null;
+			totalPacketReceived = 0;
+		}
 
-						int currentRawId = (lastBulkLastRawId + bulkRawIdStartDiff) - 1;
+		regNamespaceGroupsLeft = -1;
+		regNamespace = null;
+		regNamespaceGroupLeft = 0;
+		regId = null;
+		idMap = null;
+		idNamespaceGroupsLeft = 0;
+		idNamespace = null;
+		rawIdBulksLeft = 0;
+		bulkLeft = 0;
+		lastRawId = 0;
+	}
 
-						for (int m = 0; m < bulkSize; m++) {
-							currentRawId++;
-							String idPath = combinedBuf.readString();
-							idMap.put(Identifier.of(idNamespace, idPath), currentRawId);
-						}
+	/**
+	 * Decodes as much of the received data as possible. The bytes of every value are checked to be readable before it is
+	 * read, so decoding stops at the entry a slice ends in, and picks up from there once the next slice arrives.
+	 *
+	 * @return true once all registries have been decoded
+	 */
+	private boolean decodeAvailable() {
+		PacketByteBuf buf = combinedBuf;
+
+		while (true) {
+			if (regId == null) {
+				if (regNamespaceGroupsLeft < 0) {
+					if (varIntEnd(buf, buf.readerIndex()) < 0) {
+						return false;
+					}
+
+					regNamespaceGroupsLeft = buf.readVarInt();
+				}
+
+				while (regNamespaceGroupLeft == 0) {
+					if (regNamespaceGroupsLeft == 0) {
+						return true;
+					}
 
-						lastBulkLastRawId = currentRawId;
+					if (varIntEnd(buf, stringEnd(buf, buf.readerIndex())) < 0) {
+						return false;
 					}
+
+					regNamespace = unoptimizeNamespace(buf.readString());
+					regNamespaceGroupLeft = buf.readVarInt();
+					regNamespaceGroupsLeft--;
+				}
+
+				if (varIntEnd(buf, stringEnd(buf, buf.readerIndex())) < 0) {
+					return false;
 				}
 
-				syncedRegistryMap.put(Identifier.of(regNamespace, regPath), idMap);
+				regId = Identifier.of(regNamespace, buf.readString());
+				idNamespaceGroupsLeft = buf.readVarInt();
+				idMap = new Object2IntLinkedOpenHashMap<>();
+				lastRawId = 0;
+				regNamespaceGroupLeft--;
+			} else if (bulkLeft > 0) {
+				if (stringEnd(buf, buf.readerIndex()) < 0) {
+					return false;
+				}
+
+				idMap.put(Identifier.of(idNamespace, buf.readString()), ++lastRawId);
+				bulkLeft--;
+			} else if (rawIdBulksLeft > 0) {
+				if (varIntEnd(buf, varIntEnd(buf, buf.readerIndex())) < 0) {
+					return false;
+				}
+
+				int bulkRawIdStartDiff = buf.readVarInt();
+				bulkLeft = buf.readVarInt();
+				lastRawId += bulkRawIdStartDiff - 1;
+				rawIdBulksLeft--;
+			} else if (idNamespaceGroupsLeft > 0) {
+				if (varIntEnd(buf, stringEnd(buf, buf.readerIndex())) < 0) {
+					return false;
+				}
+
+				idNamespace = unoptimizeNamespace(buf.readString());
+				rawIdBulksLeft = buf.readVarInt();
+				idNamespaceGroupsLeft--;
+			} else {
+				syncedRegistryMap.put(regId, idMap);
+				regId = null;
+				idMap = null;
+				idNamespace = null;
+			}
+		}
+	}
+
+	/**
+	 * @return the index after the var int starting at the given index, or -1 if it has not been fully received yet.
+	 * A var int that is too long is left for {@link PacketByteBuf#readVarInt()} to reject.
+	 */
+	private static int varIntEnd(PacketByteBuf buf, int index) {
+		if (index < 0) {
+			return -1;
+		}
+
+		for (int i = 0; i < 5; i++) {
+			if (index + i >= buf.writerIndex()) {
+				return -1;
 			}
+
+			if ((buf.getByte(index + i) & 0x80) == 0) {
+				return index + i + 1;
+			}
+		}
+
+		return index + 5;
+	}
+
+	/**
+	 * @return the index after the length prefixed string starting at the given index, or -1 if it has not been fully
+	 * received yet. A malformed length is left for {@link PacketByteBuf#readString()} to reject.
+	 */
+	private static int stringEnd(PacketByteBuf buf, int index) {
+		int lengthEnd = varIntEnd(buf, index);
+
+		if (lengthEnd < 0) {
+			return -1;
+		}
+
+		int length = 0;
+
+		for (int i = index; i < lengthEnd; i++) {
+			length |= (buf.getByte(i) & 0x7F) << ((i - index) * 7);
+		}
+
+		if (length < 0) {
+			return lengthEnd;
 		}
 
-		combinedBuf.release();
-		combinedBuf = null;
+		long end = (long) lengthEnd + length;
+		return end <= buf.writerIndex() ? (int) end : -1;
 	}
 
 	@Override
@@ -231,22 +379,6 @@ public class DirectRegistryPacketHandler extends RegistryPacketHandler<DirectReg
 		return map;
 	}
 
-	private DirectRegistryPacketHandler.Payload createPayload(PacketByteBuf buf) {
-		if (buf.readableBytes() == 0) {
-			return new Payload(new byte[0]);
-		}
-
-		return new Payload(buf.array());
-	}
-
-	private static String optimizeNamespace(String namespace) {
-		return namespace.equals(Identifier.DEFAULT_NAMESPACE) ? "" : namespace;
-	}
-
-	private static String unoptimizeNamespace(String namespace) {
-		return namespace.isEmpty() ? Identifier.DEFAULT_NAMESPACE : namespace;
-	}
-
 	public record Payload(byte[] data) implements RegistrySyncPayload {
 		public static CustomPayload.Id<Payload> TYPE = new Id<>(Identifier.of("notebook", "registry/sync/direct"));
 		public static PacketCodec<PacketByteBuf, Payload> CODEC = CustomPayload.create(Payload::write, Payload::new);
@@ -22,8 +22,11 @@
  */
 package com.bookkeepersmc.notebook.impl.registry.sync.packet;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.zip.Deflater;
 
 import io.netty.buffer.ByteBuf;
@@ -43,7 +46,14 @@ public abstract class RegistryPacketHandler<T extends RegistryPacketHandler.Regi
 
 	public abstract CustomPayload.Id<T> getPacketId();
 
-	public abstract void sendPacket(Consumer<T> sender, Map<Identifier, Object2IntMap<Identifier>> registryMap);
+	/**
+	 * Encodes a registry map into the payloads to send, in order. The payloads are immutable and may be sent to several clients.
+	 */
+	public abstract List<T> createPayloads(Map<Identifier, Object2IntMap<Identifier>> registryMap);
+
+	public final void sendPacket(Consumer<T> sender, Map<Identifier, Object2IntMap<Identifier>> registryMap) {
+		createPayloads(registryMap).forEach(sender);
+	}
 
 	public abstract void receivePayload(T payload);
 
@@ -54,6 +64,39 @@ public abstract class RegistryPacketHandler<T extends RegistryPacketHandler.Regi
 	@Nullable
 	public abstract Map<Identifier, Object2IntMap<Identifier>> getSyncedRegistryMap();
 
+	/**
+	 * Splits the readable bytes of a buffer into payloads of at most {@code maxPayloadSize} bytes, followed by an empty payload marking the end of the split.
+	 * The buffer is released.
+	 */
+	protected static <T> List<T> split(PacketByteBuf buf, int maxPayloadSize, Function<byte[], T> payloadFactory) {
+		List<T> payloads = new ArrayList<>();
+		int readableBytes = buf.readableBytes();
+		int sliceIndex = buf.readerIndex();
+		int end = sliceIndex + readableBytes;
+
+		while (sliceIndex < end) {
+			int sliceSize = Math.min(end - sliceIndex, maxPayloadSize);
+			byte[] slice = new byte[sliceSize];
+			buf.getBytes(sliceIndex, slice);
+			payloads.add(payloadFactory.apply(slice));
+			sliceIndex += sliceSize;
+		}
+
+		buf.release();
+
+		// Send an empty payload to mark the end of the split.
+		payloads.add(payloadFactory.apply(new byte[0]));
+		return payloads;
+	}
+
+	protected static String optimizeNamespace(String namespace) {
+		return namespace.equals(Identifier.DEFAULT_NAMESPACE) ? "" : namespace;
+	}
+
+	protected static String unoptimizeNamespace(String namespace) {
+		return namespace.isEmpty() ? Identifier.DEFAULT_NAMESPACE : namespace;
+	}
+
 	protected final void computeBufSize(PacketByteBuf buf) {
 		if (!RegistrySyncManager.DEBUG) {
 			return;
@@ -84,8 +127,15 @@ public abstract class RegistryPacketHandler<T extends RegistryPacketHandler.Regi
 			deflater.reset();
 		}
 
-		rawBufSize = buf.readableBytes();
-		deflatedBufSize = deflatedBuf.readableBytes();
+		setBufSize(buf.readableBytes(), deflatedBuf.readableBytes());
+	}
+
+	/**
+	 * Records the sizes of the received data, for handlers that do not keep the whole buffer around.
+	 */
+	protected final void setBufSize(int rawBufSize, int deflatedBufSize) {
+		this.rawBufSize = rawBufSize;
+		this.deflatedBufSize = deflatedBufSize;
 	}
 
 	public final int getRawBufSize() {
@@ -22,11 +22,14 @@
  */
 package com.bookkeepersmc.notebook.impl.registry.sync.trackers;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import org.jetbrains.annotations.VisibleForTesting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,65 +41,220 @@ import com.bookkeepersmc.notebook.api.event.registry.RegistryEntryAddedCallback;
 import com.bookkeepersmc.notebook.api.event.registry.RegistryIdRemapCallback;
 import com.bookkeepersmc.notebook.impl.registry.sync.RemovableIdList;
 
+/**
+ * Keeps the states of a registry in its state id list ordered by the raw ids of their owners.
+ *
+ * <p>Added entries and remaps only insert or rewrite the affected range of the state list instead of rebuilding it.
+ * With {@code notebook.registry.debug.verifyStateIds} set, every update is compared against a full rebuild.
+ */
 public final class StateIdTracker<T, S> implements RegistryIdRemapCallback<T>, RegistryEntryAddedCallback<T> {
+	private static final boolean VERIFY = Boolean.getBoolean("notebook.registry.debug.verifyStateIds");
+
 	private final Logger logger = LoggerFactory.getLogger(StateIdTracker.class);
 	private final Registry<T> registry;
 	private final IdList<S> stateList;
 	private final Function<T, Collection<S>> stateGetter;
 	private int currentHighestId = 0;
 
+	// The owners in the order of their states in the state list, and the state id of their first state.
+	private final List<T> order = new ArrayList<>();
+	private final IntList stateStarts = new IntArrayList();
+	private int stateCount = 0;
+
 	public static <T, S> void register(Registry<T> registry, IdList<S> stateList, Function<T, Collection<S>> stateGetter) {
 		StateIdTracker<T, S> tracker = new StateIdTracker<>(registry, stateList, stateGetter);
 		RegistryEntryAddedCallback.event(registry).register(tracker);
 		RegistryIdRemapCallback.event(registry).register(tracker);
 	}
 
-	private StateIdTracker(Registry<T> registry, IdList<S> stateList, Function<T, Collection<S>> stateGetter) {
+	@VisibleForTesting
+	StateIdTracker(Registry<T> registry, IdList<S> stateList, Function<T, Collection<S>> stateGetter) {
 		this.registry = registry;
 		this.stateList = stateList;
 		this.stateGetter = stateGetter;
 
-		recalcHighestId();
+		// The state list is filled in raw id order by vanilla, only rebuild it if it does not match.
+		setOrder(sortByRawId());
+
+		if (stateCount != stateList.size() || VERIFY && !verify()) {
+			logger.debug("[notebook-registry-sync] State list of " + registry.getKey().getValue() + " does not match its registry, forcing state map recalculation...");
+			recalcStateMap();
+		}
 	}
 
 	@Override
 	public void onEntryAdded(int rawId, Identifier id, T object) {
-		if (rawId == currentHighestId + 1) {
-			stateGetter.apply(object).forEach(stateList::add);
+		Collection<S> states = stateGetter.apply(object);
+
+		if (!states.isEmpty() && stateList.getRawId(states.iterator().next()) >= 0) {
+			// Already tracked, can happen when unmapping restores previously removed entries.
+			return;
+		}
+
+		if (rawId > currentHighestId) {
+			order.add(object);
+			stateStarts.add(stateCount);
+			states.forEach(stateList::add);
+			stateCount += states.size();
 			currentHighestId = rawId;
 		} else {
-			logger.debug("[notebook-registry-sync] Non-sequential RegistryEntryAddedCallback for " + object.getClass().getSimpleName() + " ID tracker (at " + id + "), forcing state map recalculation...");
-			recalcStateMap();
+			logger.debug("[notebook-registry-sync] Non-sequential RegistryEntryAddedCallback for " + object.getClass().getSimpleName() + " ID tracker (at " + id + "), inserting its states...");
+			insert(rawId, object, states);
 		}
+
+		verifyIfEnabled();
 	}
 
 	@Override
 	public void onRemap(RemapState<T> state) {
-		recalcStateMap();
+		List<T> newOrder = sortByRawId();
+
+		if (newOrder.size() != order.size()) {
+			recalcStateMap();
+			return;
+		}
+
+		// Only rewrite the range between the first and the last owner whose position changed.
+		int first = 0;
+
+		while (first < order.size() && order.get(first) == newOrder.get(first)) {
+			first++;
+		}
+
+		if (first == order.size()) {
+			verifyIfEnabled();
+			return;
+		}
+
+		int last = order.size() - 1;
+
+		while (order.get(last) == newOrder.get(last)) {
+			last--;
+		}
+
+		int start = stateStarts.getInt(first);
+		int end = last + 1 < order.size() ? stateStarts.getInt(last + 1) : stateCount;
+		List<S> states = new ArrayList<>(end - start);
+
+		for (int i = first; i <= last; i++) {
+			T object = newOrder.get(i);
+			order.set(i, object);
+			stateStarts.set(i, start + states.size());
+			states.addAll(stateGetter.apply(object));
+		}
+
+		if (states.size() != end - start) {
+			recalcStateMap();
+			return;
+		}
+
+		((RemovableIdList<S>) stateList).notebook_setRange(start, states);
+		verifyIfEnabled();
+	}
+
+	private void insert(int rawId, T object, Collection<S> states) {
+		// Find the first owner with a higher raw id, the states are inserted before its states.
+		int low = 0;
+		int high = order.size();
+
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+
+			if (registry.getRawId(order.get(mid)) < rawId) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+
+		int start = low < order.size() ? stateStarts.getInt(low) : stateCount;
+		((RemovableIdList<S>) stateList).notebook_insert(start, states);
+
+		order.add(low, object);
+		stateStarts.add(low, start);
+
+		for (int i = low + 1; i < stateStarts.size(); i++) {
+			stateStarts.set(i, stateStarts.getInt(i) + states.size());
+		}
+
+		stateCount += states.size();
 	}
 
 	private void recalcStateMap() {
 		((RemovableIdList<?>) stateList).notebook_clear();
 
-		Int2ObjectMap<T> sortedBlocks = new Int2ObjectRBTreeMap<>();
-
-		currentHighestId = 0;
-		registry.forEach((t) -> {
-			int rawId = registry.getRawId(t);
-			currentHighestId = Math.max(currentHighestId, rawId);
-			sortedBlocks.put(rawId, t);
-		});
+		List<T> sorted = sortByRawId();
 
-		for (T b : sortedBlocks.values()) {
+		for (T b : sorted) {
 			stateGetter.apply(b).forEach(stateList::add);
 		}
+
+		setOrder(sorted);
+	}
+
+	private void setOrder(List<T> sorted) {
+		order.clear();
+		stateStarts.clear();
+		stateCount = 0;
+
+		for (T object : sorted) {
+			order.add(object);
+			stateStarts.add(stateCount);
+			stateCount += stateGetter.apply(object).size();
+		}
 	}
 
-	private void recalcHighestId() {
+	/**
+	 * @return the registry entries sorted by their raw id, also updating the highest raw id
+	 */
+	private List<T> sortByRawId() {
 		currentHighestId = 0;
 
 		for (T object : registry) {
 			currentHighestId = Math.max(currentHighestId, registry.getRawId(object));
 		}
+
+		Object[] byRawId = new Object[currentHighestId + 1];
+
+		for (T object : registry) {
+			byRawId[registry.getRawId(object)] = object;
+		}
+
+		List<T> sorted = new ArrayList<>(byRawId.length);
+
+		for (Object object : byRawId) {
+			if (object != null) {
+				//noinspection unchecked
+				sorted.add((T) object);
+			}
+		}
+
+		return sorted;
+	}
+
+	private void verifyIfEnabled() {
+		if (VERIFY && !verify()) {
+			logger.error("[notebook-registry-sync] Incrementally updated state list of " + registry.getKey().getValue() + " does not match a full rebuild, recalculating it");
+			recalcStateMap();
+		}
+	}
+
+	/**
+	 * Compares the state list against the one a full rebuild would produce.
+	 */
+	private boolean verify() {
+		int stateId = 0;
+
+		for (T object : sortByRawId()) {
+			for (S state : stateGetter.apply(object)) {
+				if (stateList.get(stateId) != state || stateList.getRawId(state) != stateId) {
+					return false;
+				}
+
+				stateId++;
+			}
+		}
+
+		return stateId == stateList.size();
 	}
 }
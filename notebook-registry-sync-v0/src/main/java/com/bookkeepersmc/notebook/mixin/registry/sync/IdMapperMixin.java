@@ -23,6 +23,7 @@
 package com.bookkeepersmc.notebook.mixin.registry.sync;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
@@ -120,4 +121,28 @@ public class IdMapperMixin<T> implements RemovableIdList<T> {
 			}
 		}
 	}
+
+	@Override
+	public void notebook_insert(int index, Collection<T> objects) {
+		list.addAll(index, objects);
+		nextId += objects.size();
+
+		// Shift the ids of everything after the inserted objects.
+		for (int i = index; i < list.size(); i++) {
+			T o = list.get(i);
+
+			if (o != null) {
+				idMap.put(o, i);
+			}
+		}
+	}
+
+	@Override
+	public void notebook_setRange(int start, List<T> objects) {
+		for (int i = 0; i < objects.size(); i++) {
+			T o = objects.get(i);
+			list.set(start + i, o);
+			idMap.put(o, start + i);
+		}
+	}
 }
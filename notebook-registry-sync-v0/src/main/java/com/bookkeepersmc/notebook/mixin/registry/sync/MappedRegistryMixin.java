@@ -23,7 +23,7 @@
 package com.bookkeepersmc.notebook.mixin.registry.sync;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +33,7 @@ import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.mojang.serialization.Lifecycle;
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
@@ -65,6 +66,7 @@ import com.bookkeepersmc.notebook.api.event.EventFactory;
 import com.bookkeepersmc.notebook.api.event.registry.RegistryAttribute;
 import com.bookkeepersmc.notebook.api.event.registry.RegistryAttributeHolder;
 import com.bookkeepersmc.notebook.api.event.registry.RegistryEntryAddedCallback;
+import com.bookkeepersmc.notebook.api.event.registry.RegistryFrozenCallback;
 import com.bookkeepersmc.notebook.api.event.registry.RegistryIdRemapCallback;
 import com.bookkeepersmc.notebook.impl.registry.sync.ListenableRegistry;
 import com.bookkeepersmc.notebook.impl.registry.sync.RegistrySyncManager;
@@ -111,6 +113,16 @@ public abstract class MappedRegistryMixin<T> implements MutableRegistry<T>, Rema
 	@Unique
 	private Event<RegistryIdRemapCallback<T>> notebook_postRemapEvent;
 
+	@Unique
+	private Event<RegistryIdRemapCallback.Delta<T>> notebook_deltaRemapEvent;
+
+	@Unique
+	private Event<RegistryFrozenCallback<T>> notebook_frozenEvent;
+
+	// Amount of raw ids when the registry was last frozen, entries are only added after it.
+	@Unique
+	private int notebook_frozenSize;
+
 	@Unique
 	private Object2IntMap<Identifier> notebook_prevIndexedEntries;
 	@Unique
@@ -126,6 +138,16 @@ public abstract class MappedRegistryMixin<T> implements MutableRegistry<T>, Rema
 		return notebook_postRemapEvent;
 	}
 
+	@Override
+	public Event<RegistryIdRemapCallback.Delta<T>> notebook_getDeltaRemapEvent() {
+		return notebook_deltaRemapEvent;
+	}
+
+	@Override
+	public Event<RegistryFrozenCallback<T>> notebook_getFrozenEvent() {
+		return notebook_frozenEvent;
+	}
+
 	@Inject(method = "<init>(Lnet/minecraft/registry/ResourceKey;Lcom/mojang/serialization/Lifecycle;Z)V", at = @At("RETURN"))
 	private void init(ResourceKey key, Lifecycle lifecycle, boolean intrusive, CallbackInfo ci) {
 		notebook_addObjectEvent = EventFactory.createArrayBacked(RegistryEntryAddedCallback.class,
@@ -142,6 +164,42 @@ public abstract class MappedRegistryMixin<T> implements MutableRegistry<T>, Rema
 					}
 				}
 		);
+		notebook_deltaRemapEvent = EventFactory.createArrayBacked(RegistryIdRemapCallback.Delta.class,
+				(callbacks) -> (delta) -> {
+					for (RegistryIdRemapCallback.Delta<T> callback : callbacks) {
+						callback.onRemap(delta);
+					}
+				}
+		);
+		notebook_frozenEvent = EventFactory.createArrayBacked(RegistryFrozenCallback.class,
+				(callbacks) -> (entries) -> {
+					for (RegistryFrozenCallback<T> callback : callbacks) {
+						callback.onRegistryFrozen(entries);
+					}
+				}
+		);
+	}
+
+	@Inject(method = "freeze", at = @At("RETURN"))
+	private void onFreeze(CallbackInfoReturnable<Registry<T>> info) {
+		int size = rawIdToEntry.size();
+
+		if (size <= notebook_frozenSize) {
+			return;
+		}
+
+		List<RegistryFrozenCallback.Entry<T>> entries = new ArrayList<>(size - notebook_frozenSize);
+
+		for (int rawId = notebook_frozenSize; rawId < size; rawId++) {
+			Holder.Reference<T> reference = rawIdToEntry.get(rawId);
+
+			if (reference != null) {
+				entries.add(new RegistryFrozenCallback.Entry<>(rawId, reference.getRegistryKey().getValue(), reference.getValue()));
+			}
+		}
+
+		notebook_frozenSize = size;
+		notebook_frozenEvent.invoker().onRegistryFrozen(Collections.unmodifiableList(entries));
 	}
 
 	@Unique
@@ -166,10 +224,21 @@ public abstract class MappedRegistryMixin<T> implements MutableRegistry<T>, Rema
 
 		notebook_addObjectEvent.invoker().onEntryAdded(entryToRawId.getInt(entry), key.getValue(), entry);
 		onChange(key);
+		RegistrySyncManager.invalidateSyncCache();
 	}
 
 	@Override
 	public void remap(String name, Object2IntMap<Identifier> remoteIndexedEntries, RemapMode mode) throws RemapException {
+		Runnable remapEvent = remapDeferred(name, remoteIndexedEntries, mode);
+
+		if (remapEvent != null) {
+			remapEvent.run();
+		}
+	}
+
+	@Override
+	@Nullable
+	public Runnable remapDeferred(String name, Object2IntMap<Identifier> remoteIndexedEntries, RemapMode mode) throws RemapException {
 		// Throw on invalid conditions.
 		switch (mode) {
 			case AUTHORITATIVE:
@@ -228,6 +297,11 @@ public abstract class MappedRegistryMixin<T> implements MutableRegistry<T>, Rema
 			}
 		}
 
+		if (notebook_matches(remoteIndexedEntries)) {
+			NOTEBOOK_LOGGER.debug("Skipping remap of {}, the ids already match", name);
+			return null;
+		}
+
 		// Make a copy of the previous maps.
 		// For now, only one is necessary - on an integrated server scenario,
 		// AUTHORITATIVE == CLIENT, which is fine.
@@ -302,6 +376,8 @@ public abstract class MappedRegistryMixin<T> implements MutableRegistry<T>, Rema
 		}
 
 		Int2IntMap idMap = new Int2IntOpenHashMap();
+		// Only the entries whose raw id changes.
+		Int2IntMap delta = new Int2IntOpenHashMap();
 
 		for (int i = 0; i < rawIdToEntry.size(); i++) {
 			Holder.Reference<T> reference = rawIdToEntry.get(i);
@@ -315,42 +391,124 @@ public abstract class MappedRegistryMixin<T> implements MutableRegistry<T>, Rema
 
 			// see above note
 			if (remoteIndexedEntries.containsKey(id)) {
-				idMap.put(i, remoteIndexedEntries.getInt(id));
+				int newId = remoteIndexedEntries.getInt(id);
+				idMap.put(i, newId);
+
+				if (newId != i) {
+					delta.put(i, newId);
+				}
 			}
 		}
 
-		// entries was handled above, if it was necessary.
-		rawIdToEntry.clear();
-		entryToRawId.clear();
-
-		List<Identifier> orderedRemoteEntries = new ArrayList<>(remoteIndexedEntries.keySet());
-		orderedRemoteEntries.sort(Comparator.comparingInt(remoteIndexedEntries::getInt));
-
-		for (Identifier identifier : orderedRemoteEntries) {
-			int id = remoteIndexedEntries.getInt(identifier);
-			Holder.Reference<T> object = byId.get(identifier);
+		int newSize = 0;
 
+		for (Object2IntMap.Entry<Identifier> entry : remoteIndexedEntries.object2IntEntrySet()) {
 			// Warn if an object is missing from the local registry.
 			// This should only happen in AUTHORITATIVE mode, and as such we
 			// throw an exception otherwise.
-			if (object == null) {
+			if (!byId.containsKey(entry.getKey())) {
 				if (mode != RemapMode.AUTHORITATIVE) {
-					throw new RemapException(identifier + " missing from registry, but requested!");
+					throw new RemapException(entry.getKey() + " missing from registry, but requested!");
 				} else {
-					NOTEBOOK_LOGGER.warn(identifier + " missing from registry, but requested!");
+					NOTEBOOK_LOGGER.warn(entry.getKey() + " missing from registry, but requested!");
 				}
 
 				continue;
 			}
 
-			// Add the new object
-			rawIdToEntry.size(Math.max(this.rawIdToEntry.size(), id + 1));
-			assert rawIdToEntry.get(id) == null;
-			rawIdToEntry.set(id, object);
-			entryToRawId.put(object.getValue(), id);
+			newSize = Math.max(newSize, entry.getIntValue() + 1);
+		}
+
+		if (delta.size() * 4 < idMap.size()) {
+			// Only a few entries moved, update them in place.
+			NOTEBOOK_LOGGER.debug("Remapping {} changed entries of {}", delta.size(), name);
+			notebook_remapChanged(delta, newSize);
+		} else {
+			// entries was handled above, if it was necessary.
+			rawIdToEntry.clear();
+			entryToRawId.clear();
+			rawIdToEntry.size(newSize);
+
+			for (Object2IntMap.Entry<Identifier> entry : remoteIndexedEntries.object2IntEntrySet()) {
+				Holder.Reference<T> object = byId.get(entry.getKey());
+
+				if (object == null) {
+					continue;
+				}
+
+				// Add the new object
+				int id = entry.getIntValue();
+				assert rawIdToEntry.get(id) == null;
+				rawIdToEntry.set(id, object);
+				entryToRawId.put(object.getValue(), id);
+			}
+		}
+
+		RegistrySyncManager.invalidateSyncCache();
+		notebook_frozenSize = rawIdToEntry.size();
+		RemapStateImpl<T> remapState = new RemapStateImpl<>(this, oldIdMap, idMap);
+		Int2IntMap unmodifiableDelta = Int2IntMaps.unmodifiable(delta);
+
+		return () -> {
+			notebook_getRemapEvent().invoker().onRemap(remapState);
+			notebook_getDeltaRemapEvent().invoker().onRemap(unmodifiableDelta);
+		};
+	}
+
+	/**
+	 * @return whether every raw id of the registry already matches the given ids
+	 */
+	@Unique
+	private boolean notebook_matches(Object2IntMap<Identifier> remoteIndexedEntries) {
+		if (remoteIndexedEntries.size() != rawIdToEntry.size()) {
+			return false;
+		}
+
+		for (Object2IntMap.Entry<Identifier> entry : remoteIndexedEntries.object2IntEntrySet()) {
+			int rawId = entry.getIntValue();
+
+			if (rawId < 0 || rawId >= rawIdToEntry.size()) {
+				return false;
+			}
+
+			Holder.Reference<T> reference = rawIdToEntry.get(rawId);
+
+			if (reference == null || !reference.getRegistryKey().getValue().equals(entry.getKey())) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Moves only the entries whose raw id changes, leaving the rest of the raw id structures untouched.
+	 */
+	@Unique
+	private void notebook_remapChanged(Int2IntMap delta, int newSize) {
+		List<Holder.Reference<T>> moved = new ArrayList<>(delta.size());
+		int[] newIds = new int[delta.size()];
+
+		for (Int2IntMap.Entry entry : delta.int2IntEntrySet()) {
+			newIds[moved.size()] = entry.getIntValue();
+			moved.add(rawIdToEntry.get(entry.getIntKey()));
+		}
+
+		// Clear every old slot first, as moved entries may swap their ids.
+		for (Holder.Reference<T> reference : moved) {
+			rawIdToEntry.set(entryToRawId.getInt(reference.getValue()), null);
+		}
+
+		rawIdToEntry.size(Math.max(rawIdToEntry.size(), newSize));
+
+		for (int i = 0; i < moved.size(); i++) {
+			Holder.Reference<T> reference = moved.get(i);
+			assert rawIdToEntry.get(newIds[i]) == null;
+			rawIdToEntry.set(newIds[i], reference);
+			entryToRawId.put(reference.getValue(), newIds[i]);
 		}
 
-		notebook_getRemapEvent().invoker().onRemap(new RemapStateImpl<>(this, oldIdMap, idMap));
+		rawIdToEntry.size(newSize);
 	}
 
 	@Override
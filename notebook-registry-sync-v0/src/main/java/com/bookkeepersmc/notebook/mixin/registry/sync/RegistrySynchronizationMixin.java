@@ -22,6 +22,7 @@
  */
 package com.bookkeepersmc.notebook.mixin.registry.sync;
 
+import java.util.List;
 import java.util.Set;
 import java.util.function.BiConsumer;
 
@@ -30,6 +31,7 @@ import org.spongepowered.asm.mixin.Dynamic;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
@@ -39,6 +41,7 @@ import net.minecraft.registry.Registry;
 import net.minecraft.registry.RegistryLoader;
 
 import com.bookkeepersmc.notebook.impl.registry.sync.DynamicRegistriesImpl;
+import com.bookkeepersmc.notebook.impl.registry.sync.DynamicRegistrySyncCache;
 
 @Mixin(DynamicRegistrySync.class)
 abstract class RegistrySynchronizationMixin {
@@ -62,4 +65,21 @@ abstract class RegistrySynchronizationMixin {
 			ci.cancel();
 		}
 	}
+
+	@Dynamic("method_56597: Optional.isPresent in packRegistry")
+	@Inject(method = "method_56596", at = @At("HEAD"), cancellable = true)
+	private static void useCachedEntries(Set set, RegistryLoader.DecodingData entry, DynamicOps dynamicOps, BiConsumer biConsumer, Registry registry, CallbackInfo ci) {
+		List<?> cached = DynamicRegistrySyncCache.get(registry, set);
+
+		if (cached != null) {
+			biConsumer.accept(registry.getKey(), cached);
+			ci.cancel();
+		}
+	}
+
+	@Dynamic("method_56597: Optional.isPresent in packRegistry")
+	@ModifyVariable(method = "method_56596", at = @At("HEAD"), argsOnly = true)
+	private static BiConsumer cacheSerializedEntries(BiConsumer biConsumer, Set set, RegistryLoader.DecodingData entry, DynamicOps dynamicOps, BiConsumer original, Registry registry) {
+		return DynamicRegistrySyncCache.wrap(registry, set, biConsumer);
+	}
 }
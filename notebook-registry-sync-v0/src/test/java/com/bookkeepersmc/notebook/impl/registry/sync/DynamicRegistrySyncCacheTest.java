@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.registry.sync;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.registry.Registry;
+import net.minecraft.util.Identifier;
+
+/**
+ * Follows the order of RegistrySynchronizationMixin: a cached list is sent as is, otherwise the serialized entries
+ * are cached on their way to the sender.
+ */
+public class DynamicRegistrySyncCacheTest {
+	private static final Set<String> NO_KNOWN_PACKS = Set.of();
+	private static final Set<String> VANILLA_KNOWN = Set.of("minecraft:core");
+
+	@Test
+	public void cacheHitMatchesColdSerialization() {
+		final Registry<?> registry = mock(Registry.class);
+		final List<Element> elements = elements(new Random(0), 200);
+
+		for (Set<String> knownPacks : List.of(NO_KNOWN_PACKS, VANILLA_KNOWN)) {
+			final byte[] cold = encode(serialize(elements, knownPacks));
+			final byte[] miss = encode(sync(registry, knownPacks, elements));
+			assertNotNull(DynamicRegistrySyncCache.get(registry, knownPacks), "Entries were not cached");
+			final byte[] hit = encode(sync(registry, knownPacks, elements));
+
+			assertArrayEquals(cold, miss, "Serialized entries changed on their way through the cache");
+			assertArrayEquals(cold, hit, "Cached entries differ from a cold serialization");
+			// Sending the cached entries must not modify them for the next client.
+			assertArrayEquals(cold, encode(sync(registry, knownPacks, elements)));
+		}
+	}
+
+	@Test
+	public void keyedByRegistryAndKnownPacks() {
+		final Registry<?> registry = mock(Registry.class);
+		final Registry<?> otherRegistry = mock(Registry.class);
+		final List<Element> elements = elements(new Random(1), 20);
+
+		sync(registry, Set.of("minecraft:core", "notebook_test:data"), elements);
+
+		assertNull(DynamicRegistrySyncCache.get(registry, VANILLA_KNOWN), "Entries of other known packs were reused");
+		assertNull(DynamicRegistrySyncCache.get(otherRegistry, Set.of("minecraft:core", "notebook_test:data")), "Entries of another registry were reused");
+		// The known packs are compared as a set, not by the instance the cache was filled with.
+		assertNotNull(DynamicRegistrySyncCache.get(registry, new HashSet<>(List.of("notebook_test:data", "minecraft:core"))));
+	}
+
+	@Test
+	public void boundedKnownPackSets() {
+		final Registry<?> registry = mock(Registry.class);
+		final List<Element> elements = elements(new Random(2), 5);
+
+		for (int i = 0; i < 100; i++) {
+			sync(registry, Set.of("pack_" + i), elements);
+		}
+
+		assertNull(DynamicRegistrySyncCache.get(registry, Set.of("pack_0")), "The least recently used known packs were kept");
+		assertNotNull(DynamicRegistrySyncCache.get(registry, Set.of("pack_99")));
+	}
+
+	/**
+	 * Sends the entries of the registry to one client, serializing them only if they are not cached.
+	 */
+	static List<Entry> sync(Registry<?> registry, Set<String> knownPacks, List<Element> elements) {
+		final List<List<Entry>> sent = new ArrayList<>();
+		final BiConsumer<Identifier, List<Entry>> sender = (registryId, entries) -> sent.add(entries);
+		final List<Entry> cached = DynamicRegistrySyncCache.get(registry, knownPacks);
+
+		if (cached != null) {
+			sender.accept(Element.REGISTRY, cached);
+		} else {
+			DynamicRegistrySyncCache.wrap(registry, knownPacks, sender).accept(Element.REGISTRY, serialize(elements, knownPacks));
+		}
+
+		assertEquals(1, sent.size());
+		return sent.get(0);
+	}
+
+	/**
+	 * Serializes the entries like vanilla does, leaving out the data of entries the client knows from its packs.
+	 */
+	static List<Entry> serialize(List<Element> elements, Set<String> knownPacks) {
+		final List<Entry> entries = new ArrayList<>(elements.size());
+
+		for (Element element : elements) {
+			final Optional<NbtElement> data = knownPacks.contains(element.pack()) ? Optional.empty() : Optional.of(Element.CODEC.encodeStart(NbtOps.INSTANCE, element).getOrThrow());
+			entries.add(new Entry(element.id(), data));
+		}
+
+		return entries;
+	}
+
+	static byte[] encode(List<Entry> entries) {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			for (Entry entry : entries) {
+				out.writeUTF(entry.id().toString());
+				out.writeBoolean(entry.data().isPresent());
+
+				if (entry.data().isPresent()) {
+					final NbtCompound wrapper = new NbtCompound();
+					wrapper.put("data", entry.data().get());
+					NbtIo.write(wrapper, out);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	static List<Element> elements(Random random, int count) {
+		final List<Element> elements = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			final List<Float> weights = new ArrayList<>();
+
+			for (int j = random.nextInt(8); j > 0; j--) {
+				weights.add(random.nextFloat());
+			}
+
+			elements.add(new Element(Identifier.of("notebook_test", "element_" + i), random.nextBoolean() ? "minecraft:core" : "notebook_test:data", "name_" + random.nextInt(), random.nextInt(), weights));
+		}
+
+		return elements;
+	}
+
+	/**
+	 * An entry as vanilla sends it, the id with its data unless the client already has it.
+	 */
+	record Entry(Identifier id, Optional<NbtElement> data) {
+	}
+
+	/**
+	 * A dynamic registry element, loaded from the given pack.
+	 */
+	record Element(Identifier id, String pack, String name, int value, List<Float> weights) {
+		static final Identifier REGISTRY = Identifier.of("notebook_test", "elements");
+		static final Codec<Element> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+				Identifier.CODEC.fieldOf("id").forGetter(Element::id),
+				Codec.STRING.fieldOf("pack").forGetter(Element::pack),
+				Codec.STRING.fieldOf("name").forGetter(Element::name),
+				Codec.INT.fieldOf("value").forGetter(Element::value),
+				Codec.FLOAT.listOf().fieldOf("weights").forGetter(Element::weights)
+		).apply(instance, Element::new));
+	}
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.registry.sync;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.mojang.serialization.Lifecycle;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.registry.BuiltInRegistries;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.ResourceKey;
+import net.minecraft.registry.SimpleRegistry;
+import net.minecraft.util.Identifier;
+
+import com.bookkeepersmc.notebook.api.event.registry.RegistryAttribute;
+import com.bookkeepersmc.notebook.api.event.registry.RegistryAttributeHolder;
+import com.bookkeepersmc.notebook.impl.registry.sync.packet.CompactRegistryPacketHandler;
+import com.bookkeepersmc.notebook.impl.registry.sync.packet.DirectRegistryPacketHandler;
+import com.bookkeepersmc.notebook.impl.registry.sync.packet.RegistryPacketHandler;
+
+/**
+ * Benchmark of the registry sync stages, only run with {@code -Dnotebook.registry.debug.benchmark=true} given to Gradle.
+ *
+ * <p>Each stage reports its wall time, and the CPU time and allocated bytes summed over all threads, per iteration,
+ * since the remap stages do part of their work on the common pool. The encoders also report the encoded size.
+ * The synthetic registries are sized with the {@code notebook.registry.debug.benchmark.*} properties, and are never
+ * added to the root registry.
+ *
+ * <p>Without mods no built-in registry is marked as modded and nothing would be synced, so the largest synced built-in
+ * registries are marked as synced and modded first, as they are on an instance where mods register into each of them.
+ */
+@EnabledIfSystemProperty(named = "notebook.registry.debug.benchmark", matches = "true")
+public class RegistrySyncBenchmarkTest {
+	private static final Logger LOGGER = LoggerFactory.getLogger("notebookRegistrySyncBenchmark");
+	private static final int REGISTRIES = Integer.getInteger("notebook.registry.debug.benchmark.registries", 8);
+	private static final int ENTRIES = Integer.getInteger("notebook.registry.debug.benchmark.entries", 100_000);
+	private static final int NAMESPACES = Integer.getInteger("notebook.registry.debug.benchmark.namespaces", 16);
+	private static final int ITERATIONS = Integer.getInteger("notebook.registry.debug.benchmark.iterations", 5);
+	private static final int SMALL_DIFF = 16;
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	@BeforeAll
+	static void beforeAll() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+	}
+
+	@Test
+	public void builtInRegistries() {
+		// The largest registries RegistrySyncInit marks as synced, which does not run here.
+		for (Registry<?> registry : List.of(BuiltInRegistries.BLOCK, BuiltInRegistries.ITEM, BuiltInRegistries.ENTITY_TYPE, BuiltInRegistries.SOUND_EVENT, BuiltInRegistries.PARTICLE_TYPE, BuiltInRegistries.BLOCK_ENTITY_TYPE)) {
+			RegistryAttributeHolder.get(registry)
+					.addAttribute(RegistryAttribute.SYNCED)
+					.addAttribute(RegistryAttribute.MODDED);
+		}
+
+		final Map<Identifier, Object2IntMap<Identifier>> map = measure("createAndPopulateRegistryMap", RegistrySyncManager::createAndPopulateRegistryMap);
+		assertNotNull(map, "No built-in registry is synced");
+		assertFalse(map.isEmpty(), "No built-in registry is synced");
+		LOGGER.info("Built-in registries: {} registries with {} entries", map.size(), map.values().stream().mapToInt(Map::size).sum());
+
+		measure("checkRemoteRemap", () -> {
+			RegistrySyncManager.checkRemoteRemap(map);
+			return null;
+		});
+
+		// The registries already match their own map, so this measures the diff pass.
+		measure("apply (identical)", () -> {
+			RegistrySyncManager.apply(copy(map), RemappableRegistry.RemapMode.AUTHORITATIVE);
+			return null;
+		});
+	}
+
+	@Test
+	public void codecs() {
+		final Map<Identifier, Object2IntMap<Identifier>> map = createSyntheticMap(new Random(0));
+		benchmarkCodec("direct", new DirectRegistryPacketHandler(), map);
+		benchmarkCodec("compact", new CompactRegistryPacketHandler(), map);
+	}
+
+	@Test
+	public void remap() {
+		final Random random = new Random(0);
+		final List<Identifier> ids = new ArrayList<>(ENTRIES);
+		final SimpleRegistry<Object> registry = createSyntheticRegistry(ids);
+		final RemappableRegistry remappable = (RemappableRegistry) registry;
+		final Object2IntMap<Identifier> original = new Object2IntLinkedOpenHashMap<>();
+
+		for (int i = 0; i < ids.size(); i++) {
+			original.put(ids.get(i), i);
+		}
+
+		// Swap a few entries, the common case of a client with the same mods.
+		final Object2IntMap<Identifier> smallDiff = new Object2IntLinkedOpenHashMap<>(original);
+
+		for (int i = 0; i < SMALL_DIFF && ids.size() > 1; i++) {
+			Identifier a = ids.get(random.nextInt(ids.size()));
+			Identifier b = ids.get(random.nextInt(ids.size()));
+			int rawId = smallDiff.getInt(a);
+			smallDiff.put(a, smallDiff.getInt(b));
+			smallDiff.put(b, rawId);
+		}
+
+		final List<Identifier> shuffled = new ArrayList<>(ids);
+		Collections.shuffle(shuffled, random);
+		final Object2IntMap<Identifier> fullRemap = new Object2IntLinkedOpenHashMap<>();
+
+		for (int i = 0; i < shuffled.size(); i++) {
+			fullRemap.put(shuffled.get(i), i);
+		}
+
+		// Every iteration remaps back to the original layout, so that the next one starts from the same state.
+		measure("remap (identical)", () -> remap(remappable, original));
+		measure("remap (small diff, and back)", () -> {
+			remap(remappable, smallDiff);
+			return remap(remappable, original);
+		});
+		measure("remap (full, and back)", () -> {
+			remap(remappable, fullRemap);
+			return remap(remappable, original);
+		});
+
+		for (Identifier id : ids) {
+			assertEquals(original.getInt(id), registry.getRawId(registry.get(id)), "Raw id of " + id);
+		}
+	}
+
+	/**
+	 * Opening a world restores the raw ids saved with it, which is a file read and comparison when they match,
+	 * and a full remap when the mods registered in another order.
+	 */
+	@Test
+	public void worldOpen(@TempDir Path worldDirectory) {
+		final List<Identifier> ids = new ArrayList<>(ENTRIES);
+		final SimpleRegistry<Object> registry = createSyntheticRegistry(ids);
+		final RemappableRegistry remappable = (RemappableRegistry) registry;
+		final Identifier registryId = registry.getKey().getValue();
+		final Supplier<Map<Identifier, Object2IntMap<Identifier>>> current = () -> {
+			final Object2IntMap<Identifier> rawIds = new Object2IntLinkedOpenHashMap<>();
+
+			for (Identifier id : ids) {
+				rawIds.put(id, registry.getRawId(registry.get(id)));
+			}
+
+			return Map.of(registryId, rawIds);
+		};
+		final WorldRegistryIds.Remapper remapper = map -> remap(remappable, map.get(registryId));
+		final Map<Identifier, Object2IntMap<Identifier>> saved = current.get();
+		WorldRegistryIds.save(worldDirectory, saved);
+
+		final List<Identifier> shuffled = new ArrayList<>(ids);
+		Collections.shuffle(shuffled, new Random(0));
+		final Object2IntMap<Identifier> reordered = new Object2IntLinkedOpenHashMap<>();
+
+		for (int i = 0; i < shuffled.size(); i++) {
+			reordered.put(shuffled.get(i), i);
+		}
+
+		measure("world open (ids match)", () -> {
+			WorldRegistryIds.load(worldDirectory, current, remapper);
+			return null;
+		});
+		// Every iteration reorders the registry first, as a session with the mods loading in another order would.
+		measure("world open (reordered, including the reorder)", () -> {
+			remap(remappable, reordered);
+			WorldRegistryIds.load(worldDirectory, current, remapper);
+			return null;
+		});
+
+		assertEquals(saved, current.get(), "Saved raw ids were not restored");
+	}
+
+	/**
+	 * Serializing the synced dynamic registry entries for every joining client, against sending the cached entries.
+	 * The difference in CPU time and allocated bytes per join is what the cache saves.
+	 */
+	@Test
+	public void dynamicRegistrySyncCache() {
+		final Registry<?> registry = mock(Registry.class);
+		final List<DynamicRegistrySyncCacheTest.Element> elements = DynamicRegistrySyncCacheTest.elements(new Random(0), ENTRIES / 10);
+		final Set<String> knownPacks = Set.of();
+
+		final List<DynamicRegistrySyncCacheTest.Entry> cold = measure("dynamic registry sync (cold)", () -> DynamicRegistrySyncCacheTest.serialize(elements, knownPacks));
+		// The warm up iteration fills the cache.
+		final List<DynamicRegistrySyncCacheTest.Entry> cached = measure("dynamic registry sync (cached)", () -> DynamicRegistrySyncCacheTest.sync(registry, knownPacks, elements));
+
+		LOGGER.info("dynamic registry sync: {} entries, {} bytes serialized per join", elements.size(), DynamicRegistrySyncCacheTest.encode(cold).length);
+		assertArrayEquals(DynamicRegistrySyncCacheTest.encode(cold), DynamicRegistrySyncCacheTest.encode(cached));
+	}
+
+	private static <T extends RegistryPacketHandler.RegistrySyncPayload> void benchmarkCodec(String name, RegistryPacketHandler<T> handler, Map<Identifier, Object2IntMap<Identifier>> map) {
+		final List<T> payloads = measure(name + " encode", () -> handler.createPayloads(map));
+		LOGGER.info("{} encoded size: {} bytes in {} payloads", name, payloads.stream().mapToInt(RegistrySyncBenchmarkTest::size).sum(), payloads.size());
+
+		final Map<Identifier, Object2IntMap<Identifier>> decoded = measure(name + " decode", () -> {
+			for (T payload : payloads) {
+				handler.receivePayload(payload);
+			}
+
+			return handler.getSyncedRegistryMap();
+		});
+
+		assertEquals(map, decoded, name + " decode does not match the encoded map");
+		measureRetainedHeap(name, handler, payloads);
+	}
+
+	/**
+	 * Reports the most heap the decoder kept reachable while the payloads arrived, sampled after a full collection
+	 * following each payload. This includes the decoded map, which grows to its full size by the last payload.
+	 */
+	private static <T extends RegistryPacketHandler.RegistrySyncPayload> void measureRetainedHeap(String name, RegistryPacketHandler<T> handler, List<T> payloads) {
+		final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		System.gc();
+		final long baseline = memory.getHeapMemoryUsage().getUsed();
+		long peak = 0;
+
+		for (T payload : payloads) {
+			handler.receivePayload(payload);
+			System.gc();
+			peak = Math.max(peak, memory.getHeapMemoryUsage().getUsed() - baseline);
+		}
+
+		final int entries = handler.getSyncedRegistryMap().values().stream().mapToInt(Map::size).sum();
+		LOGGER.info("{} decode peak retained heap: {} KiB for {} entries in {} payloads", name, peak / 1024, entries, payloads.size());
+	}
+
+	private static Void remap(RemappableRegistry registry, Object2IntMap<Identifier> map) throws RemapException {
+		registry.remap("notebook:benchmark", new Object2IntLinkedOpenHashMap<>(map), RemappableRegistry.RemapMode.AUTHORITATIVE);
+		return null;
+	}
+
+	private static SimpleRegistry<Object> createSyntheticRegistry(List<Identifier> ids) {
+		final SimpleRegistry<Object> registry = new SimpleRegistry<>(ResourceKey.ofRegistry(Identifier.of("notebook", "benchmark")), Lifecycle.stable());
+
+		for (int i = 0; i < ENTRIES; i++) {
+			Identifier id = syntheticId(i);
+			ids.add(id);
+			Registry.register(registry, id, new Object());
+		}
+
+		return registry;
+	}
+
+	private static Map<Identifier, Object2IntMap<Identifier>> createSyntheticMap(Random random) {
+		final Map<Identifier, Object2IntMap<Identifier>> map = new LinkedHashMap<>();
+
+		for (int i = 0; i < REGISTRIES; i++) {
+			final Object2IntMap<Identifier> ids = new Object2IntLinkedOpenHashMap<>();
+			int rawId = 0;
+
+			for (int j = 0; j < ENTRIES / REGISTRIES; j++) {
+				ids.put(syntheticId(j), rawId);
+				// Leave some holes, like removed or client only entries do.
+				rawId += random.nextInt(16) == 0 ? 2 : 1;
+			}
+
+			map.put(Identifier.of("notebook_benchmark", "registry_" + i), ids);
+		}
+
+		return map;
+	}
+
+	private static Identifier syntheticId(int index) {
+		// Paths sharing prefixes and suffixes, as real block and item paths do.
+		final String[] materials = {"oak", "spruce", "birch", "jungle", "acacia", "dark_oak", "mangrove", "cherry"};
+		final String[] shapes = {"planks", "stairs", "slab", "fence", "fence_gate", "door", "trapdoor", "button"};
+		final String path = materials[index % materials.length] + "_" + shapes[(index / materials.length) % shapes.length] + "_" + index;
+		return Identifier.of(index % NAMESPACES == 0 ? Identifier.DEFAULT_NAMESPACE : "mod_" + index % NAMESPACES, path);
+	}
+
+	private static Map<Identifier, Object2IntMap<Identifier>> copy(Map<Identifier, Object2IntMap<Identifier>> map) {
+		final Map<Identifier, Object2IntMap<Identifier>> copy = new LinkedHashMap<>();
+		map.forEach((id, ids) -> copy.put(id, new Object2IntLinkedOpenHashMap<>(ids)));
+		return copy;
+	}
+
+	private static int size(RegistryPacketHandler.RegistrySyncPayload payload) {
+		if (payload instanceof DirectRegistryPacketHandler.Payload direct) {
+			return direct.data().length;
+		} else if (payload instanceof CompactRegistryPacketHandler.Payload compact) {
+			return compact.data().length;
+		}
+
+		return 0;
+	}
+
+	private static <T> T measure(String stage, Stage<T> task) {
+		try {
+			// Warm up once, then measure the remaining iterations.
+			T result = task.run();
+			final int iterations = Math.max(1, ITERATIONS);
+			final long cpuStart = totalCpuTime();
+			final long allocatedStart = totalAllocatedBytes();
+			final long wallStart = System.nanoTime();
+
+			for (int i = 0; i < iterations; i++) {
+				result = task.run();
+			}
+
+			final long wall = (System.nanoTime() - wallStart) / iterations;
+			final long cpu = (totalCpuTime() - cpuStart) / iterations;
+			final long allocated = (totalAllocatedBytes() - allocatedStart) / iterations;
+			LOGGER.info("{}: {} ms wall, {} ms cpu, {} KiB allocated", stage, wall / 1_000_000D, cpu / 1_000_000D, allocated / 1024);
+			return result;
+		} catch (RemapException e) {
+			throw new AssertionError(stage + " failed", e);
+		}
+	}
+
+	/**
+	 * Sums over all live threads, which includes the common pool workers the remap is split across.
+	 * Threads are not started or stopped by the benchmark itself, so the sum only moves with the measured work
+	 * and whatever else the test JVM is doing.
+	 */
+	private static long totalCpuTime() {
+		long total = 0;
+
+		for (long id : THREADS.getAllThreadIds()) {
+			total += Math.max(0, THREADS.getThreadCpuTime(id));
+		}
+
+		return total;
+	}
+
+	private static long totalAllocatedBytes() {
+		long total = 0;
+
+		for (long allocated : THREADS.getThreadAllocatedBytes(THREADS.getAllThreadIds())) {
+			total += Math.max(0, allocated);
+		}
+
+		return total;
+	}
+
+	@FunctionalInterface
+	private interface Stage<T> {
+		T run() throws RemapException;
+	}
+}
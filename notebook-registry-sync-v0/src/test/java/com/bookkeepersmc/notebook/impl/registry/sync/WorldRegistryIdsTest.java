@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.registry.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.mojang.serialization.Lifecycle;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.ResourceKey;
+import net.minecraft.registry.SimpleRegistry;
+import net.minecraft.util.Identifier;
+
+/**
+ * Saves the raw ids of a world, then opens it again with the mods registering their entries in a different order,
+ * as happens when mods are added, removed or load in another order.
+ */
+public class WorldRegistryIdsTest {
+	private static final Identifier BLOCKS = Identifier.of("notebook_test", "blocks");
+	private static final Identifier ITEMS = Identifier.of("notebook_test", "items");
+	private static final int ENTRIES_PER_MOD = 5;
+
+	@TempDir
+	Path worldDirectory;
+
+	@BeforeAll
+	static void beforeAll() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+	}
+
+	@Test
+	public void reorderedMods() {
+		final Map<Identifier, Object2IntMap<Identifier>> saved = playSession(List.of("a", "b", "c"));
+		final Session session = openWorld(List.of("c", "a", "b"));
+
+		assertEquals(saved, session.ids());
+	}
+
+	@Test
+	public void addedMod() {
+		final Map<Identifier, Object2IntMap<Identifier>> saved = playSession(List.of("a", "b"));
+		// The new mod registers first, which would shift every other id without the saved ones.
+		final Session session = openWorld(List.of("new", "a", "b"));
+		final Map<Identifier, Object2IntMap<Identifier>> ids = session.ids();
+
+		for (Identifier registryId : saved.keySet()) {
+			final Object2IntMap<Identifier> savedIds = saved.get(registryId);
+			final Object2IntMap<Identifier> registryIds = ids.get(registryId);
+			final int savedMax = savedIds.values().intStream().max().orElse(-1);
+			final Set<Integer> rawIds = new HashSet<>();
+
+			for (Object2IntMap.Entry<Identifier> entry : registryIds.object2IntEntrySet()) {
+				if (savedIds.containsKey(entry.getKey())) {
+					assertEquals(savedIds.getInt(entry.getKey()), entry.getIntValue(), "Raw id of " + entry.getKey());
+				} else {
+					// Entries of the new mod are appended after the saved ones.
+					assertTrue(entry.getIntValue() > savedMax, "Raw id of " + entry.getKey() + " overlaps the saved ids");
+				}
+
+				assertTrue(rawIds.add(entry.getIntValue()), "Raw id " + entry.getIntValue() + " is used twice");
+			}
+		}
+	}
+
+	@Test
+	public void removedMod() {
+		final Map<Identifier, Object2IntMap<Identifier>> saved = playSession(List.of("a", "b", "c"));
+		final Session session = openWorld(List.of("a", "c"));
+		final Map<Identifier, Object2IntMap<Identifier>> ids = session.ids();
+
+		for (Identifier registryId : saved.keySet()) {
+			final Object2IntMap<Identifier> registryIds = ids.get(registryId);
+
+			for (Object2IntMap.Entry<Identifier> entry : registryIds.object2IntEntrySet()) {
+				assertEquals(saved.get(registryId).getInt(entry.getKey()), entry.getIntValue(), "Raw id of " + entry.getKey());
+			}
+
+			// The ids of the removed mod are left unused rather than handed to the remaining entries.
+			assertEquals(saved.get(registryId).size() - ENTRIES_PER_MOD, registryIds.size());
+		}
+	}
+
+	@Test
+	public void matchingIdsSkipRemap() {
+		final Map<Identifier, Object2IntMap<Identifier>> saved = playSession(List.of("a", "b"));
+		final Session session = openWorld(List.of("a", "b"));
+
+		assertEquals(0, session.remaps, "Ids matching the saved ones must not be remapped");
+		assertEquals(saved, session.ids());
+	}
+
+	@Test
+	public void matchingRegistriesSkipped() {
+		final Map<Identifier, Object2IntMap<Identifier>> saved = playSession(List.of("a", "b"));
+		// Only the items of the mods load in another order, the blocks keep their ids.
+		final Session session = new Session(Map.of(BLOCKS, List.of("a", "b"), ITEMS, List.of("b", "a")));
+		session.open();
+
+		assertEquals(1, session.remaps);
+		assertEquals(List.of(BLOCKS), session.skipped);
+		assertEquals(saved, session.ids());
+	}
+
+	@Test
+	public void unchangedIdsNotRewritten() throws Exception {
+		playSession(List.of("a", "b"));
+		final Path path = worldDirectory.resolve("data").resolve("notebook").resolve("registry_ids.dat");
+		Files.setLastModifiedTime(path, FileTime.fromMillis(0));
+
+		playSession(List.of("a", "b"));
+		assertEquals(0, Files.getLastModifiedTime(path).toMillis(), "Unchanged ids were written again");
+
+		playSession(List.of("b", "a", "c"));
+		assertNotEquals(0, Files.getLastModifiedTime(path).toMillis(), "Changed ids were not written");
+	}
+
+	/**
+	 * Opens and closes the world, saving its ids.
+	 *
+	 * @return the ids of the session
+	 */
+	private Map<Identifier, Object2IntMap<Identifier>> playSession(List<String> mods) {
+		final Session session = openWorld(mods);
+		WorldRegistryIds.save(worldDirectory, session.ids());
+		return session.ids();
+	}
+
+	private Session openWorld(List<String> mods) {
+		final Session session = new Session(Map.of(BLOCKS, mods, ITEMS, mods));
+		session.open();
+		return session;
+	}
+
+	/**
+	 * A game session, where every mod registers its entries to each registry in the given order.
+	 */
+	private final class Session {
+		private final Map<Identifier, SimpleRegistry<Object>> registries = new LinkedHashMap<>();
+		private final List<Identifier> skipped = new ArrayList<>();
+		private int remaps;
+
+		private Session(Map<Identifier, List<String>> modOrders) {
+			for (Identifier registryId : List.of(BLOCKS, ITEMS)) {
+				final SimpleRegistry<Object> registry = new SimpleRegistry<>(ResourceKey.ofRegistry(registryId), Lifecycle.stable());
+
+				for (String mod : modOrders.get(registryId)) {
+					for (int i = 0; i < ENTRIES_PER_MOD; i++) {
+						Registry.register(registry, Identifier.of(mod, registryId.getPath() + "_" + i), new Object());
+					}
+				}
+
+				registries.put(registryId, registry);
+			}
+		}
+
+		private void open() {
+			WorldRegistryIds.load(worldDirectory, this::ids, map -> {
+				remaps++;
+
+				// Like RegistrySyncManager.apply, limited to the registries of this session.
+				for (Map.Entry<Identifier, Object2IntMap<Identifier>> entry : map.entrySet()) {
+					final RemappableRegistry registry = (RemappableRegistry) registries.get(entry.getKey());
+					final Runnable remapEvent = registry.remapDeferred(entry.getKey().toString(), new Object2IntLinkedOpenHashMap<>(entry.getValue()), RemappableRegistry.RemapMode.AUTHORITATIVE);
+
+					if (remapEvent == null) {
+						skipped.add(entry.getKey());
+					} else {
+						remapEvent.run();
+					}
+				}
+			});
+		}
+
+		private Map<Identifier, Object2IntMap<Identifier>> ids() {
+			final Map<Identifier, Object2IntMap<Identifier>> map = new LinkedHashMap<>();
+
+			registries.forEach((registryId, registry) -> {
+				final Object2IntMap<Identifier> ids = new Object2IntLinkedOpenHashMap<>();
+
+				for (Identifier id : registry.getIds()) {
+					ids.put(id, registry.getRawId(registry.get(id)));
+				}
+
+				map.put(registryId, ids);
+			});
+
+			return map;
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.registry.sync.packet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.util.Identifier;
+
+public class DirectRegistryPacketHandlerTest {
+	private static final String[] NAMESPACES = { "minecraft", "notebook", "example_mod", "a" };
+	private static final String[] WORDS = { "stone", "stone_bricks", "oak", "oak_planks", "oak_log", "stripped_oak_log", "deepslate", "_", "a", "" };
+
+	@Test
+	public void emptyMap() {
+		assertEquals(Map.of(), roundTrip(new DirectRegistryPacketHandler(), Map.of(), Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void randomMaps() {
+		final Random random = new Random(42);
+
+		for (int i = 0; i < 200; i++) {
+			final Map<Identifier, Object2IntMap<Identifier>> map = randomMap(random, 1 + random.nextInt(5), random.nextInt(2000));
+			assertEquals(map, roundTrip(new DirectRegistryPacketHandler(), map, Integer.MAX_VALUE), "Map " + i);
+		}
+	}
+
+	@Test
+	public void smallSlices() {
+		final Random random = new Random(7);
+		final Map<Identifier, Object2IntMap<Identifier>> map = randomMap(random, 4, 3000);
+
+		// Slices end inside varints, strings, bulk headers and between registries.
+		for (int sliceSize : new int[] { 1, 2, 3, 8, 13, 64, 1000 }) {
+			assertEquals(map, roundTrip(new DirectRegistryPacketHandler(), map, sliceSize), "Slice size " + sliceSize);
+		}
+	}
+
+	@Test
+	public void truncatedData() {
+		final Random random = new Random(3);
+
+		for (int entries : new int[] { 5, 3000 }) {
+			final byte[] data = encode(randomMap(random, 3, entries));
+
+			for (int length = 0; length < data.length; length += Math.max(1, data.length / 200)) {
+				final byte[] truncated = Arrays.copyOf(data, length);
+				assertThrows(RuntimeException.class, () -> receive(new DirectRegistryPacketHandler(), truncated, 64), "Truncated to " + truncated.length + " of " + data.length);
+			}
+		}
+	}
+
+	@Test
+	public void reusableAfterFailure() {
+		final Random random = new Random(5);
+		final DirectRegistryPacketHandler handler = new DirectRegistryPacketHandler();
+		final byte[] data = encode(randomMap(random, 3, 500));
+
+		// A sync that ends early must not leave any decoding state behind for the next one.
+		assertThrows(RuntimeException.class, () -> receive(handler, Arrays.copyOf(data, data.length / 2), 64));
+
+		final Map<Identifier, Object2IntMap<Identifier>> map = randomMap(random, 3, 500);
+		assertEquals(map, roundTrip(handler, map, 64));
+	}
+
+	private static Map<Identifier, Object2IntMap<Identifier>> roundTrip(DirectRegistryPacketHandler handler, Map<Identifier, Object2IntMap<Identifier>> map, int sliceSize) {
+		return receive(handler, encode(map), sliceSize);
+	}
+
+	/**
+	 * Encodes a map and joins the slices back into the single stream they were split from.
+	 */
+	private static byte[] encode(Map<Identifier, Object2IntMap<Identifier>> map) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		for (DirectRegistryPacketHandler.Payload payload : new DirectRegistryPacketHandler().createPayloads(map)) {
+			out.writeBytes(payload.data());
+		}
+
+		return out.toByteArray();
+	}
+
+	/**
+	 * Receives a stream split into slices of the given size, followed by the empty end payload.
+	 */
+	private static Map<Identifier, Object2IntMap<Identifier>> receive(DirectRegistryPacketHandler handler, byte[] data, int sliceSize) {
+		int offset = 0;
+
+		while (offset < data.length) {
+			final int end = (int) Math.min(data.length, (long) offset + sliceSize);
+			handler.receivePayload(new DirectRegistryPacketHandler.Payload(Arrays.copyOfRange(data, offset, end)));
+			offset = end;
+		}
+
+		handler.receivePayload(new DirectRegistryPacketHandler.Payload(new byte[0]));
+		return handler.getSyncedRegistryMap();
+	}
+
+	private static Map<Identifier, Object2IntMap<Identifier>> randomMap(Random random, int registries, int entries) {
+		final Map<Identifier, Object2IntMap<Identifier>> map = new LinkedHashMap<>();
+
+		for (int i = 0; i < registries; i++) {
+			final Object2IntMap<Identifier> idMap = new Object2IntLinkedOpenHashMap<>();
+			int rawId = 0;
+
+			for (int j = 0; j < entries; j++) {
+				// Mostly dense ids, with the occasional gap or jump back.
+				rawId = Math.max(rawId + (random.nextInt(20) == 0 ? random.nextInt(100000) - 50000 : 1), 0);
+				idMap.put(Identifier.of(randomElement(random, NAMESPACES), randomPath(random)), rawId);
+			}
+
+			map.put(Identifier.of(randomElement(random, NAMESPACES), "registry_" + i), idMap);
+		}
+
+		return map;
+	}
+
+	private static String randomPath(Random random) {
+		final StringBuilder path = new StringBuilder(randomElement(random, WORDS));
+
+		for (int i = random.nextInt(3); i > 0; i--) {
+			path.append(random.nextBoolean() ? '/' : '_').append(randomElement(random, WORDS));
+		}
+
+		return path.append(random.nextInt(1000)).toString();
+	}
+
+	private static String randomElement(Random random, String[] array) {
+		return array[random.nextInt(array.length)];
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.registry.sync.trackers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.ResourceKey;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.collection.IdList;
+
+import com.bookkeepersmc.notebook.api.event.registry.RegistryIdRemapCallback;
+
+/**
+ * Compares the incrementally updated state list of a {@link StateIdTracker} against a full rebuild
+ * after random sequential additions, out of order insertions and remaps.
+ */
+public class StateIdTrackerTest {
+	private final Map<Owner, Integer> rawIds = new LinkedHashMap<>();
+	private final IdList<Object> stateList = new IdList<>();
+	private final Random random = new Random(1234);
+	private int nextOwner = 0;
+
+	@Test
+	public void randomUpdates() {
+		final Registry<Owner> registry = mockRegistry();
+
+		// Sparse raw ids, so that there are gaps to insert into.
+		for (int rawId = 0; rawId < 200; rawId += 1 + random.nextInt(3)) {
+			rawIds.put(newOwner(), rawId);
+		}
+
+		rawIds.entrySet().stream().sorted(Map.Entry.comparingByValue()).forEach(entry -> entry.getKey().states().forEach(stateList::add));
+
+		final StateIdTracker<Owner, Object> tracker = new StateIdTracker<>(registry, stateList, Owner::states);
+		assertMatchesRebuild("initial");
+
+		for (int i = 0; i < 1000; i++) {
+			switch (random.nextInt(3)) {
+			case 0 -> {
+				final Owner owner = newOwner();
+				final int rawId = Collections.max(rawIds.values()) + 1 + random.nextInt(3);
+				rawIds.put(owner, rawId);
+				tracker.onEntryAdded(rawId, owner.id(), owner);
+			}
+			case 1 -> {
+				final int rawId = freeRawId();
+
+				if (rawId >= 0) {
+					final Owner owner = newOwner();
+					rawIds.put(owner, rawId);
+					tracker.onEntryAdded(rawId, owner.id(), owner);
+				}
+			}
+			default -> {
+				shuffleRawIds();
+				tracker.onRemap(mock(RegistryIdRemapCallback.RemapState.class));
+			}
+			}
+
+			assertMatchesRebuild("operation " + i);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Registry<Owner> mockRegistry() {
+		final Registry<Owner> registry = mock(Registry.class);
+		when(registry.iterator()).thenAnswer(invocation -> new ArrayList<>(rawIds.keySet()).iterator());
+		when(registry.getRawId(any())).thenAnswer(invocation -> rawIds.getOrDefault(invocation.<Owner>getArgument(0), -1));
+		when(registry.getKey()).thenAnswer(invocation -> ResourceKey.ofRegistry(Identifier.of("notebook", "test")));
+		return registry;
+	}
+
+	private Owner newOwner() {
+		final int index = nextOwner++;
+		final List<Object> states = new ArrayList<>();
+
+		// Some owners have no states at all.
+		for (int i = random.nextInt(5); i > 0; i--) {
+			states.add(new Object());
+		}
+
+		return new Owner(Identifier.of("notebook", "owner_" + index), states);
+	}
+
+	private int freeRawId() {
+		final int max = Collections.max(rawIds.values());
+
+		for (int attempt = 0; attempt < 10; attempt++) {
+			final int rawId = random.nextInt(max);
+
+			if (!rawIds.containsValue(rawId)) {
+				return rawId;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Swaps the raw ids of a random range of owners, like a remap to the raw ids of a server does.
+	 */
+	private void shuffleRawIds() {
+		final List<Owner> owners = new ArrayList<>(rawIds.keySet());
+		final int start = random.nextInt(owners.size());
+		final int end = Math.min(owners.size(), start + 1 + random.nextInt(20));
+		final List<Owner> shuffled = owners.subList(start, end);
+		final List<Integer> ids = new ArrayList<>();
+
+		for (Owner owner : shuffled) {
+			ids.add(rawIds.get(owner));
+		}
+
+		Collections.shuffle(ids, random);
+
+		for (int i = 0; i < shuffled.size(); i++) {
+			rawIds.put(shuffled.get(i), ids.get(i));
+		}
+	}
+
+	private void assertMatchesRebuild(String step) {
+		final List<Owner> byRawId = new ArrayList<>(rawIds.keySet());
+		byRawId.sort(Comparator.comparingInt(rawIds::get));
+		int stateId = 0;
+
+		for (Owner owner : byRawId) {
+			for (Object state : owner.states()) {
+				assertSame(state, stateList.get(stateId), "State " + stateId + " after " + step);
+				assertEquals(stateId, stateList.getRawId(state), "Raw id of state " + stateId + " after " + step);
+				stateId++;
+			}
+		}
+
+		assertEquals(stateId, stateList.size(), "State count after " + step);
+	}
+
+	private record Owner(Identifier id, Collection<Object> states) {
+	}
+}
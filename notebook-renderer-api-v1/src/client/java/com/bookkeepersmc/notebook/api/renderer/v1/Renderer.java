@@ -22,13 +22,18 @@
  */
 package com.bookkeepersmc.notebook.api.renderer.v1;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.util.Identifier;
 
 import com.bookkeepersmc.notebook.api.renderer.v1.material.MaterialFinder;
 import com.bookkeepersmc.notebook.api.renderer.v1.material.RenderMaterial;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.Mesh;
 import com.bookkeepersmc.notebook.api.renderer.v1.mesh.MeshBuilder;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadEmitter;
 
 /**
  * Interface for rendering plug-ins that provide enhanced capabilities
@@ -45,6 +50,32 @@ public interface Renderer {
 	 */
 	MeshBuilder meshBuilder();
 
+	/**
+	 * Obtain a new {@link MeshBuilder} instance with room for about {@code expectedQuads} quads,
+	 * so that it does not need to grow while they are emitted. The hint does not limit how many quads can be emitted.
+	 */
+	default MeshBuilder meshBuilder(int expectedQuads) {
+		return meshBuilder();
+	}
+
+	/**
+	 * Bake a static mesh off the calling thread. The task emits the quads of the mesh to the given emitter,
+	 * from which the mesh is built once the task returns.
+	 *
+	 * <p>Meant for models that build meshes when they are baked: the tasks run in parallel on the worker
+	 * executor used by resource reloading, while the model bake continues. Models should keep the returned future
+	 * and {@link CompletableFuture#join() join} it when the mesh is first needed. Each task gets its own builder,
+	 * so the mesh is the same as if it was built on the calling thread, but the task must not depend on state
+	 * that is not safe to read from another thread.
+	 *
+	 * @param expectedQuads the number of quads the task is expected to emit, see {@link #meshBuilder(int)}
+	 */
+	default CompletableFuture<Mesh> bakeMesh(int expectedQuads, Consumer<QuadEmitter> task) {
+		final MeshBuilder builder = meshBuilder(expectedQuads);
+		task.accept(builder.getEmitter());
+		return CompletableFuture.completedFuture(builder.build());
+	}
+
 	/**
 	 * Obtain a new {@link MaterialFinder} instance used to retrieve
 	 * standard {@link RenderMaterial} instances.
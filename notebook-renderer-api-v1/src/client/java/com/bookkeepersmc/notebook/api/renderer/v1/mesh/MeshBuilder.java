@@ -27,4 +27,13 @@ public interface MeshBuilder {
 	QuadEmitter getEmitter();
 
 	Mesh build();
+
+	/**
+	 * Like {@link #build()}, but lets the renderer keep the quads outside the Java heap. Meant for very large meshes
+	 * that are built once and kept until the next resource reload, which the garbage collector would otherwise keep
+	 * scanning and copying. Renderers without off-heap storage return a regular mesh.
+	 */
+	default Mesh buildOffHeap() {
+		return build();
+	}
 }
@@ -28,6 +28,7 @@ import com.mojang.blaze3d.vertex.VertexConsumer;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.client.render.model.BakedModel;
+import net.minecraft.client.render.model.json.ModelTransformationMode;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.math.BlockPos;
@@ -134,4 +135,17 @@ public interface NotebookBakedModel {
 	default void emitItemQuads(ItemStack stack, Supplier<RandomGenerator> randomSupplier, RenderContext context) {
 		VanillaModelEncoder.emitItemQuads((BakedModel) this, null, randomSupplier, context);
 	}
+
+	/**
+	 * When true, signals the renderer that {@link #emitItemQuads(ItemStack, Supplier, RenderContext)} always produces
+	 * the same quads for stacks of the same item with the same components, in the given transformation mode.
+	 * The renderer may then keep the colored quads of GUI renders and reuse them instead of calling the model again,
+	 * which matters for screens that render many items every frame.
+	 *
+	 * <p>Models whose output depends on anything else, such as time, the player or the world, must return false.
+	 * The default is false.
+	 */
+	default boolean hasStaticItemQuads(ItemStack stack, ModelTransformationMode transformMode) {
+		return false;
+	}
 }
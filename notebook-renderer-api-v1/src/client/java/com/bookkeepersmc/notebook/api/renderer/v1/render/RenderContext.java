@@ -81,6 +81,9 @@ public interface RenderContext {
 	 * use of meshes/models across multiple chunk builders.
 	 *
 	 * <p>Using the {@linkplain #getEmitter() quad emitter of this context} from the inside of a quad transform is not supported.
+	 *
+	 * <p>Transforms that only move, recolor, re-texture or re-material quads should be a {@link SimpleQuadTransform},
+	 * which the renderer can combine with the other ones on the stack instead of calling each of them.
 	 */
 	void pushTransform(QuadTransform transform);
 
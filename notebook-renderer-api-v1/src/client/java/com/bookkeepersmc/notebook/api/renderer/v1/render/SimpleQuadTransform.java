@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.api.renderer.v1.render;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix3f;
+import org.joml.Matrix3fc;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+
+import net.minecraft.client.texture.Sprite;
+
+import com.bookkeepersmc.notebook.api.renderer.v1.material.RenderMaterial;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.MutableQuadView;
+
+/**
+ * A {@link RenderContext.QuadTransform} described by data instead of code: an affine transformation of the positions
+ * and normals, a color multiplier, sprite remaps and a material override. Because the renderer can see what the
+ * transform does, several of them pushed on top of each other can be combined into a single operation per quad,
+ * where lambdas have to be called one after the other.
+ *
+ * <p>The parts are applied in a fixed order: sprite remaps, color multiplier, position and normals, material.
+ * None of them depend on each other, so the order only matters within a part. The cull face and nominal face
+ * of the quad are left unchanged.
+ *
+ * <p>When several of these transforms are stacked, the renderer may multiply their color multipliers together
+ * before applying them, so colors may differ by rounding from applying them one by one.
+ *
+ * <p>Instances are immutable and can be kept in static fields; create them with {@link #builder()}.
+ */
+public final class SimpleQuadTransform implements RenderContext.QuadTransform {
+	@Nullable
+	private final Matrix4f matrix;
+	@Nullable
+	private final Matrix3f normalMatrix;
+	private final int colorMultiplier;
+	private final Sprite[] remapFrom;
+	private final Sprite[] remapTo;
+	@Nullable
+	private final RenderMaterial material;
+
+	private SimpleQuadTransform(Builder builder) {
+		matrix = builder.matrix == null ? null : new Matrix4f(builder.matrix);
+		normalMatrix = matrix == null ? null : matrix.normal(new Matrix3f());
+		colorMultiplier = builder.colorMultiplier;
+		remapFrom = builder.remapFrom.toArray(new Sprite[0]);
+		remapTo = builder.remapTo.toArray(new Sprite[0]);
+		material = builder.material;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Returns the affine matrix applied to positions, or {@code null} if positions are not transformed.
+	 */
+	@Nullable
+	public Matrix4fc matrix() {
+		return matrix;
+	}
+
+	/**
+	 * Returns the matrix applied to vertex normals, derived from {@link #matrix()}, or {@code null} if normals are not transformed.
+	 */
+	@Nullable
+	public Matrix3fc normalMatrix() {
+		return normalMatrix;
+	}
+
+	/**
+	 * Returns the ARGB color multiplier, or {@code -1} if colors are not changed.
+	 */
+	public int colorMultiplier() {
+		return colorMultiplier;
+	}
+
+	public int spriteRemapCount() {
+		return remapFrom.length;
+	}
+
+	public Sprite spriteRemapFrom(int index) {
+		return remapFrom[index];
+	}
+
+	public Sprite spriteRemapTo(int index) {
+		return remapTo[index];
+	}
+
+	/**
+	 * Returns the material given to every quad, or {@code null} if the material is not changed.
+	 */
+	@Nullable
+	public RenderMaterial material() {
+		return material;
+	}
+
+	@Override
+	public boolean transform(MutableQuadView quad) {
+		for (int i = 0; i < remapFrom.length; i++) {
+			remapSprite(quad, remapFrom[i], remapTo[i]);
+		}
+
+		if (colorMultiplier != -1) {
+			for (int i = 0; i < 4; i++) {
+				quad.color(i, multiplyColor(quad.color(i), colorMultiplier));
+			}
+		}
+
+		if (matrix != null) {
+			transformGeometry(quad, matrix, normalMatrix);
+		}
+
+		if (material != null) {
+			quad.material(material);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Transforms the positions of the quad by {@code matrix}, and its vertex normals by {@code normalMatrix}.
+	 * The normals are renormalized afterwards.
+	 */
+	public static void transformGeometry(MutableQuadView quad, Matrix4fc matrix, Matrix3fc normalMatrix) {
+		for (int i = 0; i < 4; i++) {
+			final float x = quad.x(i);
+			final float y = quad.y(i);
+			final float z = quad.z(i);
+			quad.pos(i, matrix.m00() * x + matrix.m10() * y + matrix.m20() * z + matrix.m30(),
+					matrix.m01() * x + matrix.m11() * y + matrix.m21() * z + matrix.m31(),
+					matrix.m02() * x + matrix.m12() * y + matrix.m22() * z + matrix.m32());
+
+			if (quad.hasNormal(i)) {
+				final float nx = quad.normalX(i);
+				final float ny = quad.normalY(i);
+				final float nz = quad.normalZ(i);
+				final float tx = normalMatrix.m00() * nx + normalMatrix.m10() * ny + normalMatrix.m20() * nz;
+				final float ty = normalMatrix.m01() * nx + normalMatrix.m11() * ny + normalMatrix.m21() * nz;
+				final float tz = normalMatrix.m02() * nx + normalMatrix.m12() * ny + normalMatrix.m22() * nz;
+				final float scale = 1.0f / (float) Math.sqrt(tx * tx + ty * ty + tz * tz);
+				quad.normal(i, tx * scale, ty * scale, tz * scale);
+			}
+		}
+	}
+
+	/**
+	 * Moves the UVs of the quad from {@code from} to the same relative place in {@code to}
+	 * if the UV centroid of the quad is inside {@code from}.
+	 */
+	public static void remapSprite(MutableQuadView quad, Sprite from, Sprite to) {
+		final float u = (quad.u(0) + quad.u(1) + quad.u(2) + quad.u(3)) * 0.25f;
+		final float v = (quad.v(0) + quad.v(1) + quad.v(2) + quad.v(3)) * 0.25f;
+
+		if (u < from.getMinU() || u > from.getMaxU() || v < from.getMinV() || v > from.getMaxV()) {
+			return;
+		}
+
+		final float uScale = (to.getMaxU() - to.getMinU()) / (from.getMaxU() - from.getMinU());
+		final float vScale = (to.getMaxV() - to.getMinV()) / (from.getMaxV() - from.getMinV());
+
+		for (int i = 0; i < 4; i++) {
+			quad.uv(i, to.getMinU() + (quad.u(i) - from.getMinU()) * uScale, to.getMinV() + (quad.v(i) - from.getMinV()) * vScale);
+		}
+	}
+
+	/** Component-wise multiply of two ARGB colors, where {@code -1} is the identity. */
+	public static int multiplyColor(int color1, int color2) {
+		if (color1 == -1) {
+			return color2;
+		} else if (color2 == -1) {
+			return color1;
+		}
+
+		final int alpha = ((color1 >>> 24) & 0xFF) * ((color2 >>> 24) & 0xFF) / 0xFF;
+		final int red = ((color1 >>> 16) & 0xFF) * ((color2 >>> 16) & 0xFF) / 0xFF;
+		final int green = ((color1 >>> 8) & 0xFF) * ((color2 >>> 8) & 0xFF) / 0xFF;
+		final int blue = (color1 & 0xFF) * (color2 & 0xFF) / 0xFF;
+
+		return (alpha << 24) | (red << 16) | (green << 8) | blue;
+	}
+
+	public static final class Builder {
+		@Nullable
+		private Matrix4f matrix;
+		private int colorMultiplier = -1;
+		private final List<Sprite> remapFrom = new ArrayList<>();
+		private final List<Sprite> remapTo = new ArrayList<>();
+		@Nullable
+		private RenderMaterial material;
+
+		private Builder() { }
+
+		/**
+		 * Transforms positions, and vertex normals, by an affine matrix.
+		 * Calling this more than once applies the matrices in the order they were given.
+		 *
+		 * @throws IllegalArgumentException if the matrix is not affine
+		 */
+		public Builder affine(Matrix4fc matrix) {
+			if (!matrix.isAffine()) {
+				throw new IllegalArgumentException("Quad transform matrix must be affine: " + matrix);
+			}
+
+			this.matrix = this.matrix == null ? new Matrix4f(matrix) : new Matrix4f(matrix).mul(this.matrix);
+			return this;
+		}
+
+		/**
+		 * Multiplies the ARGB color of every vertex by the given color. Calling this more than once
+		 * multiplies the multipliers together.
+		 */
+		public Builder colorMultiplier(int color) {
+			colorMultiplier = multiplyColor(colorMultiplier, color);
+			return this;
+		}
+
+		/**
+		 * Moves the UVs of quads textured with {@code from} to {@code to}, see {@link #remapSprite(MutableQuadView, Sprite, Sprite)}.
+		 * Remaps are applied in the order they were given, and each one sees the result of the previous ones.
+		 */
+		public Builder remapSprite(Sprite from, Sprite to) {
+			remapFrom.add(Objects.requireNonNull(from, "from"));
+			remapTo.add(Objects.requireNonNull(to, "to"));
+			return this;
+		}
+
+		/**
+		 * Gives every quad the given material.
+		 */
+		public Builder material(RenderMaterial material) {
+			this.material = Objects.requireNonNull(material, "material");
+			return this;
+		}
+
+		public SimpleQuadTransform build() {
+			return new SimpleQuadTransform(this);
+		}
+	}
+}
@@ -22,8 +22,9 @@
  */
 package com.bookkeepersmc.notebook.impl.renderer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,126 +33,140 @@ import net.minecraft.client.texture.MissingSprite;
 import net.minecraft.client.texture.Sprite;
 import net.minecraft.client.texture.SpriteAtlasTexture;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.MathHelper;
 
 import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadView;
 import com.bookkeepersmc.notebook.api.renderer.v1.model.SpriteFinder;
 
+/**
+ * Finds sprites through a flat grid laid over the atlas. The cells are about the size of the smallest sprite,
+ * so most cells overlap a single sprite and a lookup is a couple of array reads and a bounds check.
+ * UVs not covered by any sprite find the missing sprite.
+ * The sprites overlapping each cell are stored contiguously, with {@link #cellStarts} holding where each cell's run begins.
+ */
 public class SpriteFinderImpl implements SpriteFinder {
 	private static final Logger LOGGER = LoggerFactory.getLogger(SpriteFinderImpl.class);
-
-	private final Node root;
+	private static final float EPS = 0.00001f;
+	/** Limits the grid to a million cells, for atlases with tiny sprites. */
+	private static final int MAX_GRID_SIZE = 1024;
+
+	private final Sprite[] sprites;
+	private final int gridWidth;
+	private final int gridHeight;
+	private final int[] cellStarts;
+	private final int[] cellSprites;
 	private final SpriteAtlasTexture spriteAtlasTexture;
 	private int badSpriteCount = 0;
 
 	public SpriteFinderImpl(Map<Identifier, Sprite> sprites, SpriteAtlasTexture spriteAtlasTexture) {
-		root = new Node(0.5f, 0.5f, 0.25f);
 		this.spriteAtlasTexture = spriteAtlasTexture;
-		sprites.values().forEach(root::add);
-	}
-
-	@Override
-	public Sprite find(QuadView quad) {
-		float u = 0;
-		float v = 0;
-
-		for (int i = 0; i < 4; i++) {
-			u += quad.u(i);
-			v += quad.v(i);
-		}
-
-		return find(u * 0.25f, v * 0.25f);
-	}
-
-	@Override
-	public Sprite find(float u, float v) {
-		return root.find(u, v);
-	}
-
-	private class Node {
-		final float midU;
-		final float midV;
-		final float cellRadius;
-		Object lowLow = null;
-		Object lowHigh = null;
-		Object highLow = null;
-		Object highHigh = null;
-
-		Node(float midU, float midV, float radius) {
-			this.midU = midU;
-			this.midV = midV;
-			cellRadius = radius;
-		}
 
-		static final float EPS = 0.00001f;
+		final List<Sprite> valid = new ArrayList<>(sprites.size());
+		float minWidth = 1;
+		float minHeight = 1;
 
-		void add(Sprite sprite) {
+		for (Sprite sprite : sprites.values()) {
 			if (sprite.getMinU() < 0 - EPS || sprite.getMaxU() > 1 + EPS || sprite.getMinV() < 0 - EPS || sprite.getMaxV() > 1 + EPS) {
 				// Sprite has broken bounds. This SHOULD NOT happen, but in the past some mods have broken this.
-				// Prefer failing with a log warning rather than risking a stack overflow.
 				if (badSpriteCount++ < 5) {
 					String errorMessage = "SpriteFinderImpl: Skipping sprite {} with broken bounds [{}, {}]x[{}, {}]. Sprite bounds should be between 0 and 1.";
 					LOGGER.error(errorMessage, sprite.getContents().getId(), sprite.getMinU(), sprite.getMaxU(), sprite.getMinV(), sprite.getMaxV());
 				}
 
-				return;
+				continue;
 			}
 
-			final boolean lowU = sprite.getMinU() < midU - EPS;
-			final boolean highU = sprite.getMaxU() > midU + EPS;
-			final boolean lowV = sprite.getMinV() < midV - EPS;
-			final boolean highV = sprite.getMaxV() > midV + EPS;
+			valid.add(sprite);
+			minWidth = Math.min(minWidth, sprite.getMaxU() - sprite.getMinU());
+			minHeight = Math.min(minHeight, sprite.getMaxV() - sprite.getMinV());
+		}
 
-			if (lowU && lowV) {
-				addInner(sprite, lowLow, -1, -1, q -> lowLow = q);
-			}
+		this.sprites = valid.toArray(new Sprite[0]);
+		gridWidth = gridSize(minWidth);
+		gridHeight = gridSize(minHeight);
 
-			if (lowU && highV) {
-				addInner(sprite, lowHigh, -1, 1, q -> lowHigh = q);
-			}
+		// Count the sprites of each cell, turn the counts into run starts, then fill the runs.
+		cellStarts = new int[gridWidth * gridHeight + 1];
 
-			if (highU && lowV) {
-				addInner(sprite, highLow, 1, -1, q -> highLow = q);
-			}
+		for (Sprite sprite : this.sprites) {
+			forEachCell(sprite, cell -> cellStarts[cell + 1]++);
+		}
 
-			if (highU && highV) {
-				addInner(sprite, highHigh, 1, 1, q -> highHigh = q);
-			}
+		for (int cell = 0; cell < gridWidth * gridHeight; cell++) {
+			cellStarts[cell + 1] += cellStarts[cell];
 		}
 
-		private void addInner(Sprite sprite, Object quadrant, int uStep, int vStep, Consumer<Object> setter) {
-			if (quadrant == null) {
-				setter.accept(sprite);
-			} else if (quadrant instanceof Node) {
-				((Node) quadrant).add(sprite);
-			} else {
-				Node n = new Node(midU + cellRadius * uStep, midV + cellRadius * vStep, cellRadius * 0.5f);
+		cellSprites = new int[cellStarts[gridWidth * gridHeight]];
+		final int[] fill = new int[gridWidth * gridHeight];
 
-				if (quadrant instanceof Sprite) {
-					n.add((Sprite) quadrant);
-				}
+		for (int i = 0; i < this.sprites.length; i++) {
+			final int index = i;
+			forEachCell(this.sprites[i], cell -> cellSprites[cellStarts[cell] + fill[cell]++] = index);
+		}
+	}
 
-				n.add(sprite);
-				setter.accept(n);
-			}
+	private static int gridSize(float minSpriteSize) {
+		if (minSpriteSize <= EPS) {
+			return MAX_GRID_SIZE;
 		}
 
-		private Sprite find(float u, float v) {
-			if (u < midU) {
-				return v < midV ? findInner(lowLow, u, v) : findInner(lowHigh, u, v);
-			} else {
-				return v < midV ? findInner(highLow, u, v) : findInner(highHigh, u, v);
+		return MathHelper.clamp(MathHelper.ceil(1 / minSpriteSize), 1, MAX_GRID_SIZE);
+	}
+
+	private void forEachCell(Sprite sprite, CellConsumer consumer) {
+		final int minX = cellX(sprite.getMinU() + EPS);
+		final int maxX = cellX(sprite.getMaxU() - EPS);
+		final int minY = cellY(sprite.getMinV() + EPS);
+		final int maxY = cellY(sprite.getMaxV() - EPS);
+
+		for (int y = minY; y <= maxY; y++) {
+			for (int x = minX; x <= maxX; x++) {
+				consumer.accept(y * gridWidth + x);
 			}
 		}
+	}
+
+	private int cellX(float u) {
+		return MathHelper.clamp((int) (u * gridWidth), 0, gridWidth - 1);
+	}
+
+	private int cellY(float v) {
+		return MathHelper.clamp((int) (v * gridHeight), 0, gridHeight - 1);
+	}
+
+	@Override
+	public Sprite find(QuadView quad) {
+		float u = 0;
+		float v = 0;
+
+		for (int i = 0; i < 4; i++) {
+			u += quad.u(i);
+			v += quad.v(i);
+		}
+
+		return find(u * 0.25f, v * 0.25f);
+	}
 
-		private Sprite findInner(Object quadrant, float u, float v) {
-			if (quadrant instanceof Sprite) {
-				return (Sprite) quadrant;
-			} else if (quadrant instanceof Node) {
-				return ((Node) quadrant).find(u, v);
-			} else {
-				return spriteAtlasTexture.getSprite(MissingSprite.getMissingSpriteId());
+	@Override
+	public Sprite find(float u, float v) {
+		final int cell = cellY(v) * gridWidth + cellX(u);
+		final int end = cellStarts[cell + 1];
+
+		// Cells are only about the size of the smallest sprite, so they can also cover the padding between sprites.
+		for (int i = cellStarts[cell]; i < end; i++) {
+			final Sprite sprite = sprites[cellSprites[i]];
+
+			if (u >= sprite.getMinU() && u < sprite.getMaxU() && v >= sprite.getMinV() && v < sprite.getMaxV()) {
+				return sprite;
 			}
 		}
+
+		return spriteAtlasTexture.getSprite(MissingSprite.getMissingSpriteId());
+	}
+
+	@FunctionalInterface
+	private interface CellConsumer {
+		void accept(int cell);
 	}
 
 	public static SpriteFinderImpl get(SpriteAtlasTexture atlas) {
@@ -25,11 +25,14 @@ package com.bookkeepersmc.notebook.impl.renderer;
 import java.util.List;
 import java.util.function.Supplier;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.client.render.model.BakedModel;
 import net.minecraft.client.render.model.BakedQuad;
+import net.minecraft.client.render.model.BasicBakedModel;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.random.RandomGenerator;
 
@@ -37,6 +40,8 @@ import com.bookkeepersmc.notebook.api.renderer.v1.Renderer;
 import com.bookkeepersmc.notebook.api.renderer.v1.RendererAccess;
 import com.bookkeepersmc.notebook.api.renderer.v1.material.RenderMaterial;
 import com.bookkeepersmc.notebook.api.renderer.v1.material.ShadeMode;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.Mesh;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.MeshBuilder;
 import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadEmitter;
 import com.bookkeepersmc.notebook.api.renderer.v1.model.ModelHelper;
 import com.bookkeepersmc.notebook.api.renderer.v1.render.RenderContext;
@@ -47,6 +52,17 @@ public class VanillaModelEncoder {
 	private static final RenderMaterial STANDARD_MATERIAL = RENDERER.materialFinder().shadeMode(ShadeMode.VANILLA).find();
 	private static final RenderMaterial NO_AO_MATERIAL = RENDERER.materialFinder().shadeMode(ShadeMode.VANILLA).ambientOcclusion(TriState.FALSE).find();
 
+	private static final int QUAD_CACHE_SIZE = Integer.getInteger("notebook.renderer.vanillaQuadCacheSize", 16384);
+	/**
+	 * Block quads already encoded by the renderer, keyed by the identity of the list returned by {@link BasicBakedModel#getQuads}.
+	 * Only plain {@link BasicBakedModel}s are cached: they return the immutable lists built when they were baked, so the weighted
+	 * variant and multipart selection is implied by the key. Other models may refill one list on every call, so they are never cached.
+	 * A hit is still checked against the quads it was encoded from, and the lists of replaced models are collected with the weak keys.
+	 */
+	private static final Cache<List<BakedQuad>, EncodedQuads> QUAD_CACHE = CacheBuilder.newBuilder().weakKeys().maximumSize(Math.max(QUAD_CACHE_SIZE, 0)).build();
+	private static final ThreadLocal<MeshBuilder> MESH_BUILDER = ThreadLocal.withInitial(RENDERER::meshBuilder);
+	private static volatile int cacheGeneration;
+
 	public static void emitBlockQuads(BakedModel model, @Nullable BlockState state, Supplier<RandomGenerator> randomSupplier, RenderContext context) {
 		QuadEmitter emitter = context.getEmitter();
 		final RenderMaterial defaultMaterial = model.useAmbientOcclusion() ? STANDARD_MATERIAL : NO_AO_MATERIAL;
@@ -62,6 +78,15 @@ public class VanillaModelEncoder {
 			final List<BakedQuad> quads = model.getQuads(state, cullFace, randomSupplier.get());
 			final int count = quads.size();
 
+			if (count == 0) {
+				continue;
+			}
+
+			if (QUAD_CACHE_SIZE > 0 && model.getClass() == BasicBakedModel.class) {
+				getEncodedQuads(quads, defaultMaterial, cullFace).outputTo(emitter);
+				continue;
+			}
+
 			for (int j = 0; j < count; j++) {
 				final BakedQuad q = quads.get(j);
 				emitter.fromVanilla(q, defaultMaterial, cullFace);
@@ -70,6 +95,42 @@ public class VanillaModelEncoder {
 		}
 	}
 
+	private static Mesh getEncodedQuads(List<BakedQuad> quads, RenderMaterial material, @Nullable Direction cullFace) {
+		final EncodedQuads cached = QUAD_CACHE.getIfPresent(quads);
+
+		if (cached != null && cached.matches(material, cullFace, quads)) {
+			return cached.mesh();
+		}
+
+		final MeshBuilder builder = MESH_BUILDER.get();
+		final QuadEmitter emitter = builder.getEmitter();
+		final int count = quads.size();
+
+		for (int j = 0; j < count; j++) {
+			emitter.fromVanilla(quads.get(j), material, cullFace);
+			emitter.emit();
+		}
+
+		final Mesh mesh = builder.build();
+		QUAD_CACHE.put(quads, new EncodedQuads(mesh, material, cullFace, quads.toArray(new BakedQuad[0])));
+		return mesh;
+	}
+
+	/**
+	 * Drops all encoded block quads. Called when the atlases are reloaded, as models are baked again afterwards.
+	 */
+	public static void invalidateCache() {
+		QUAD_CACHE.invalidateAll();
+		cacheGeneration++;
+	}
+
+	/**
+	 * Changes every time {@link #invalidateCache()} is called, so that renderers can drop their own model caches too.
+	 */
+	public static int getCacheGeneration() {
+		return cacheGeneration;
+	}
+
 	public static void emitItemQuads(BakedModel model, @Nullable BlockState state, Supplier<RandomGenerator> randomSupplier, RenderContext context) {
 		QuadEmitter emitter = context.getEmitter();
 
@@ -85,4 +146,20 @@ public class VanillaModelEncoder {
 			}
 		}
 	}
+
+	private record EncodedQuads(Mesh mesh, RenderMaterial material, @Nullable Direction cullFace, BakedQuad[] quads) {
+		boolean matches(RenderMaterial material, @Nullable Direction cullFace, List<BakedQuad> quads) {
+			if (this.material != material || this.cullFace != cullFace || this.quads.length != quads.size()) {
+				return false;
+			}
+
+			for (int i = 0; i < this.quads.length; i++) {
+				if (this.quads[i] != quads.get(i)) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
 }
@@ -101,7 +101,7 @@ public class MultipartBakedModelMixin implements NotebookBakedModel {
 
 		for (int i = 0; i < this.components.size(); i++) {
 			if (bitSet.get(i)) {
-				components.get(i).model().emitBlockQuads(blockView, state, pos, randomSupplier, context);
+				components.get(i).model().emitBlockQuads(blockView, state, pos, subModelRandomSupplier, context);
 			}
 		}
 	}
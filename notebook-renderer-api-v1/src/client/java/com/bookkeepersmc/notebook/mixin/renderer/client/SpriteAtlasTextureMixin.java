@@ -36,6 +36,7 @@ import net.minecraft.client.texture.SpriteLoader;
 import net.minecraft.util.Identifier;
 
 import com.bookkeepersmc.notebook.impl.renderer.SpriteFinderImpl;
+import com.bookkeepersmc.notebook.impl.renderer.VanillaModelEncoder;
 
 @Mixin(SpriteAtlasTexture.class)
 public class SpriteAtlasTextureMixin implements SpriteFinderImpl.SpriteFinderAccess {
@@ -47,6 +48,7 @@ public class SpriteAtlasTextureMixin implements SpriteFinderImpl.SpriteFinderAcc
 	@Inject(method = "upload", at = @At("RETURN"))
 	private void uploadHook(SpriteLoader.SpritePreparations preparations, CallbackInfo info) {
 		notebook_spriteFinder = null;
+		VanillaModelEncoder.invalidateCache();
 	}
 
 	@Override
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.renderer;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import net.minecraft.client.texture.Sprite;
+
+/**
+ * The quadtree {@link SpriteFinderImpl} used before the flat grid, kept as a reference for its tests.
+ * It returns the only sprite of a leaf even for UVs outside of it, so it only agrees with the grid on covered UVs.
+ */
+class QuadtreeSpriteFinder {
+	private static final float EPS = 0.00001f;
+
+	private final Node root;
+	private final Sprite missing;
+
+	QuadtreeSpriteFinder(Collection<Sprite> sprites, Sprite missing) {
+		root = new Node(0.5f, 0.5f, 0.25f);
+		this.missing = missing;
+
+		for (Sprite sprite : sprites) {
+			if (sprite.getMinU() < 0 - EPS || sprite.getMaxU() > 1 + EPS || sprite.getMinV() < 0 - EPS || sprite.getMaxV() > 1 + EPS) {
+				continue;
+			}
+
+			root.add(sprite);
+		}
+	}
+
+	Sprite find(float u, float v) {
+		return root.find(u, v);
+	}
+
+	private class Node {
+		final float midU;
+		final float midV;
+		final float cellRadius;
+		Object lowLow = null;
+		Object lowHigh = null;
+		Object highLow = null;
+		Object highHigh = null;
+
+		Node(float midU, float midV, float radius) {
+			this.midU = midU;
+			this.midV = midV;
+			cellRadius = radius;
+		}
+
+		void add(Sprite sprite) {
+			final boolean lowU = sprite.getMinU() < midU - EPS;
+			final boolean highU = sprite.getMaxU() > midU + EPS;
+			final boolean lowV = sprite.getMinV() < midV - EPS;
+			final boolean highV = sprite.getMaxV() > midV + EPS;
+
+			if (lowU && lowV) {
+				addInner(sprite, lowLow, -1, -1, q -> lowLow = q);
+			}
+
+			if (lowU && highV) {
+				addInner(sprite, lowHigh, -1, 1, q -> lowHigh = q);
+			}
+
+			if (highU && lowV) {
+				addInner(sprite, highLow, 1, -1, q -> highLow = q);
+			}
+
+			if (highU && highV) {
+				addInner(sprite, highHigh, 1, 1, q -> highHigh = q);
+			}
+		}
+
+		private void addInner(Sprite sprite, Object quadrant, int uStep, int vStep, Consumer<Object> setter) {
+			if (quadrant == null) {
+				setter.accept(sprite);
+			} else if (quadrant instanceof Node) {
+				((Node) quadrant).add(sprite);
+			} else {
+				Node n = new Node(midU + cellRadius * uStep, midV + cellRadius * vStep, cellRadius * 0.5f);
+
+				if (quadrant instanceof Sprite) {
+					n.add((Sprite) quadrant);
+				}
+
+				n.add(sprite);
+				setter.accept(n);
+			}
+		}
+
+		private Sprite find(float u, float v) {
+			if (u < midU) {
+				return v < midV ? findInner(lowLow, u, v) : findInner(lowHigh, u, v);
+			} else {
+				return v < midV ? findInner(highLow, u, v) : findInner(highHigh, u, v);
+			}
+		}
+
+		private Sprite findInner(Object quadrant, float u, float v) {
+			if (quadrant instanceof Sprite) {
+				return (Sprite) quadrant;
+			} else if (quadrant instanceof Node) {
+				return ((Node) quadrant).find(u, v);
+			} else {
+				return missing;
+			}
+		}
+	}
+}
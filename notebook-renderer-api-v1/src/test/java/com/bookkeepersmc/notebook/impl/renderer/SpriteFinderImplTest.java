@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.renderer;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.client.texture.MissingSprite;
+import net.minecraft.client.texture.Sprite;
+import net.minecraft.client.texture.SpriteAtlasTexture;
+import net.minecraft.util.Identifier;
+
+/**
+ * Checks the grid {@link SpriteFinderImpl} against the {@link QuadtreeSpriteFinder} it replaced and a linear search.
+ */
+public class SpriteFinderImplTest {
+	private static final int ATLASES = 10;
+	private static final int SAMPLES = 10_000;
+
+	private final Sprite missing = mock(Sprite.class);
+	private final SpriteAtlasTexture atlas = mock(SpriteAtlasTexture.class);
+
+	public SpriteFinderImplTest() {
+		when(atlas.getSprite(MissingSprite.getMissingSpriteId())).thenReturn(missing);
+	}
+
+	@Test
+	public void paddingFindsMissingSprite() {
+		final Map<Identifier, Sprite> sprites = new LinkedHashMap<>();
+		// With sprites at least 24 pixels wide and 16 high, the grid has 3 by 4 cells of 21.3 by 16 pixels.
+		final Sprite a = put(sprites, 64, 64, 0, 0, 24, 16);
+		final Sprite b = put(sprites, 64, 64, 40, 0, 24, 16);
+		final Sprite c = put(sprites, 64, 64, 0, 32, 24, 16);
+		final SpriteFinderImpl finder = new SpriteFinderImpl(sprites, atlas);
+
+		assertSame(a, finder.find(22 / 64f, 8 / 64f));
+		assertSame(b, finder.find(41 / 64f, 8 / 64f));
+		// Between a and b, in a cell overlapping both.
+		assertSame(missing, finder.find(32 / 64f, 8 / 64f));
+		// Right of c, in a cell overlapping only c.
+		assertSame(missing, finder.find(32 / 64f, 40 / 64f));
+		// In a cell overlapping no sprite.
+		assertSame(missing, finder.find(56 / 64f, 56 / 64f));
+	}
+
+	@Test
+	public void matchesQuadtreeAndLinearSearch() {
+		final Random random = new Random(0);
+
+		for (int i = 0; i < ATLASES; i++) {
+			final Sprite[] sprites = stitch(random);
+			final Map<Identifier, Sprite> map = new LinkedHashMap<>();
+
+			for (int j = 0; j < sprites.length; j++) {
+				map.put(Identifier.of("notebook", "sprite_" + j), sprites[j]);
+			}
+
+			final float[] bounds = bounds(sprites);
+			final SpriteFinderImpl finder = new SpriteFinderImpl(map, atlas);
+			final QuadtreeSpriteFinder quadtree = new QuadtreeSpriteFinder(map.values(), missing);
+
+			// Points within each sprite, such as the centers of its quads.
+			for (Sprite sprite : sprites) {
+				for (int j = 0; j < 4; j++) {
+					final float u = sprite.getMinU() + (0.01f + 0.98f * random.nextFloat()) * (sprite.getMaxU() - sprite.getMinU());
+					final float v = sprite.getMinV() + (0.01f + 0.98f * random.nextFloat()) * (sprite.getMaxV() - sprite.getMinV());
+					assertSame(sprite, finder.find(u, v), "Grid at " + u + ", " + v);
+					assertSame(sprite, quadtree.find(u, v), "Quadtree at " + u + ", " + v);
+				}
+			}
+
+			// Points anywhere, including the padding. The quadtree does not detect padding, so it is only compared on hits.
+			for (int j = 0; j < SAMPLES; j++) {
+				final float u = random.nextFloat();
+				final float v = random.nextFloat();
+				final Sprite expected = linearSearch(sprites, bounds, u, v);
+				assertSame(expected, finder.find(u, v), "Grid at " + u + ", " + v);
+
+				if (expected != missing) {
+					assertSame(expected, quadtree.find(u, v), "Quadtree at " + u + ", " + v);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Packs sprites of random power of two sizes into shelves of a random atlas, leaving random gaps between them.
+	 */
+	private Sprite[] stitch(Random random) {
+		final int width = 256 << random.nextInt(3);
+		final int height = 256 << random.nextInt(3);
+		final List<Sprite> sprites = new ArrayList<>();
+		final int minSize = 8 << random.nextInt(2);
+		int x = 0;
+		int y = 0;
+		int shelfHeight = 0;
+
+		while (true) {
+			final int w = minSize << random.nextInt(4);
+			final int h = random.nextInt(4) == 0 ? w << random.nextInt(3) : w;
+
+			if (x + w > width) {
+				x = 0;
+				y += shelfHeight;
+				shelfHeight = 0;
+			}
+
+			if (y + h > height || w > width) {
+				break;
+			}
+
+			if (random.nextInt(8) != 0) {
+				sprites.add(sprite(width, height, x, y, w, h));
+			}
+
+			x += w + (random.nextInt(4) == 0 ? minSize * random.nextInt(3) : 0);
+			shelfHeight = Math.max(shelfHeight, h);
+		}
+
+		return sprites.toArray(new Sprite[0]);
+	}
+
+	/**
+	 * @return the bounds of the sprites as min u, max u, min v and max v, read once from the mocks
+	 */
+	private static float[] bounds(Sprite[] sprites) {
+		final float[] bounds = new float[sprites.length * 4];
+
+		for (int i = 0; i < sprites.length; i++) {
+			bounds[i * 4] = sprites[i].getMinU();
+			bounds[i * 4 + 1] = sprites[i].getMaxU();
+			bounds[i * 4 + 2] = sprites[i].getMinV();
+			bounds[i * 4 + 3] = sprites[i].getMaxV();
+		}
+
+		return bounds;
+	}
+
+	private Sprite linearSearch(Sprite[] sprites, float[] bounds, float u, float v) {
+		for (int i = 0; i < sprites.length; i++) {
+			if (u >= bounds[i * 4] && u < bounds[i * 4 + 1] && v >= bounds[i * 4 + 2] && v < bounds[i * 4 + 3]) {
+				return sprites[i];
+			}
+		}
+
+		return missing;
+	}
+
+	private static Sprite put(Map<Identifier, Sprite> sprites, int atlasWidth, int atlasHeight, int x, int y, int width, int height) {
+		final Sprite sprite = sprite(atlasWidth, atlasHeight, x, y, width, height);
+		sprites.put(Identifier.of("notebook", "sprite_" + sprites.size()), sprite);
+		return sprite;
+	}
+
+	private static Sprite sprite(int atlasWidth, int atlasHeight, int x, int y, int width, int height) {
+		final Sprite sprite = mock(Sprite.class);
+		when(sprite.getMinU()).thenReturn((float) x / atlasWidth);
+		when(sprite.getMaxU()).thenReturn((float) (x + width) / atlasWidth);
+		when(sprite.getMinV()).thenReturn((float) y / atlasHeight);
+		when(sprite.getMaxV()).thenReturn((float) (y + height) / atlasHeight);
+		return sprite;
+	}
+}
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.util.Locale;
 import java.util.Properties;
 
+import jdk.jfr.FlightRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +39,9 @@ import com.bookkeepersmc.notebook.api.renderer.v1.RendererAccess;
 import com.bookkeepersmc.notebook.api.util.TriState;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.NotebookRenderer;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.aocalc.AoConfig;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.RendererStats;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.RendererStatsEvent;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.TessellationBenchmark;
 
 public class NotebookBuiltinRenderer implements ClientModInitializer {
 	public static final boolean ALWAYS_TESSELATE_INDIGO;
@@ -149,6 +153,11 @@ public class NotebookBuiltinRenderer implements ClientModInitializer {
 			}
 
 			RendererAccess.INSTANCE.registerRenderer(NotebookRenderer.INSTANCE);
+			FlightRecorder.addPeriodicEvent(RendererStatsEvent.class, RendererStats::emitEvent);
+
+			if (TessellationBenchmark.ENABLED) {
+				TessellationBenchmark.register();
+			}
 		} else {
 			LOGGER.info("[Indigo] Different rendering plugin detected; not applying Indigo.");
 		}
@@ -23,13 +23,18 @@
 package com.bookkeepersmc.notebook.impl.client.rendering.renderer;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
 
 import com.bookkeepersmc.notebook.api.renderer.v1.Renderer;
 import com.bookkeepersmc.notebook.api.renderer.v1.material.MaterialFinder;
 import com.bookkeepersmc.notebook.api.renderer.v1.material.RenderMaterial;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.Mesh;
 import com.bookkeepersmc.notebook.api.renderer.v1.mesh.MeshBuilder;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadEmitter;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.material.MaterialFinderImpl;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.mesh.MeshBuilderImpl;
 
@@ -55,6 +60,20 @@ public class NotebookRenderer implements Renderer {
 		return new MeshBuilderImpl();
 	}
 
+	@Override
+	public MeshBuilder meshBuilder(int expectedQuads) {
+		return new MeshBuilderImpl(expectedQuads);
+	}
+
+	@Override
+	public CompletableFuture<Mesh> bakeMesh(int expectedQuads, Consumer<QuadEmitter> task) {
+		return CompletableFuture.supplyAsync(() -> {
+			final MeshBuilderImpl builder = new MeshBuilderImpl(expectedQuads);
+			task.accept(builder.getEmitter());
+			return builder.build();
+		}, Util.getMainWorkerExecutor());
+	}
+
 	@Override
 	public MaterialFinder materialFinder() {
 		return new MaterialFinderImpl();
@@ -212,8 +212,7 @@ public abstract class AoCalculator {
 
 		for (int i = 0; i < 4; i++) {
 			wFunc.apply(quad, i, w);
-			light[i] = faceData.weightedCombinedLight(w);
-			ao[i] = faceData.weigtedAo(w);
+			faceData.weightedLightAndAo(w, i, light, ao);
 		}
 	}
 
@@ -250,8 +249,7 @@ public abstract class AoCalculator {
 
 		for (int i = 0; i < 4; i++) {
 			wFunc.apply(quad, i, w);
-			light[i] = faceData.weightedCombinedLight(w);
-			ao[i] = faceData.weigtedAo(w);
+			faceData.weightedLightAndAo(w, i, light, ao);
 		}
 	}
 
@@ -76,6 +76,22 @@ class AoFaceData {
 		return a0 * w[0] + a1 * w[1] + a2 * w[2] + a3 * w[3];
 	}
 
+	/**
+	 * Writes the weighted light and AO of one vertex in a single pass, reading the weights only once.
+	 * The sums are evaluated in the same order as {@link #weightedCombinedLight(float[])} and {@link #weigtedAo(float[])},
+	 * so the results are identical.
+	 */
+	void weightedLightAndAo(float[] w, int vertexIndex, int[] lightOut, float[] aoOut) {
+		final float w0 = w[0];
+		final float w1 = w[1];
+		final float w2 = w[2];
+		final float w3 = w[3];
+		final int block = (int) (b0 * w0 + b1 * w1 + b2 * w2 + b3 * w3) & 0xFF;
+		final int sky = (int) (s0 * w0 + s1 * w1 + s2 * w2 + s3 * w3) & 0xFF;
+		lightOut[vertexIndex] = sky << 16 | block;
+		aoOut[vertexIndex] = a0 * w0 + a1 * w1 + a2 * w2 + a3 * w3;
+	}
+
 	void toArray(float[] aOut, int[] bOut, int[] vertexMap) {
 		aOut[vertexMap[0]] = a0;
 		aOut[vertexMap[1]] = a1;
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Recorded for single block or item models that take long to render, to find expensive models.
+ */
+@Name("notebook.renderer.ModelRender")
+@Label("Slow Model Render")
+@Description("A block or item model that took longer than the threshold to render")
+@Category({"Notebook", "Renderer"})
+@Threshold("100 us")
+@StackTrace(false)
+public class ModelRenderEvent extends Event {
+	private static final EventType TYPE = EventType.getEventType(ModelRenderEvent.class);
+
+	@Label("Model Class")
+	public String model;
+	@Label("Rendered Block State Or Item")
+	public String target;
+
+	/**
+	 * @return whether a recording has the event enabled. Models are rendered far more often than they are recorded,
+	 * so callers check this before creating the event, and may keep the result for a whole chunk section.
+	 */
+	public static boolean isTypeEnabled() {
+		return TYPE.isEnabled();
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug;
+
+import java.lang.ref.Cleaner;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Counters and timings of the render contexts, shown on the debug HUD and exported as {@link RendererStatsEvent}.
+ *
+ * <p>Each render context owns a {@link Counters} instance. Contexts are thread-local, so the counters are only written
+ * by one thread and need no synchronization. Readers sum all of them, tolerating slightly stale values.
+ * Once a context is collected, for example after its thread ended, its counts are folded into a retired total
+ * and its counters are dropped.
+ */
+public final class RendererStats {
+	public static final int BLOCKS = 0;
+	public static final int VANILLA_BLOCKS = 1;
+	public static final int QUADS = 2;
+	public static final int TRANSFORM_REJECTED = 3;
+	public static final int CULLED = 4;
+	public static final int AO_QUADS = 5;
+	public static final int FLAT_QUADS = 6;
+	public static final int SECTIONS = 7;
+	public static final int SECTION_NANOS = 8;
+	public static final int ITEMS = 9;
+	public static final int CACHED_ITEMS = 10;
+	public static final int ITEM_NANOS = 11;
+	private static final int COUNT = 12;
+
+	private static final Cleaner CLEANER = Cleaner.create();
+	private static final List<Counters> COUNTERS = new CopyOnWriteArrayList<>();
+	// Guarded by itself.
+	private static final long[] RETIRED = new long[COUNT];
+	private static final Window HUD_WINDOW = new Window();
+	private static final Window EVENT_WINDOW = new Window();
+
+	private RendererStats() { }
+
+	/**
+	 * @param owner the render context the counters belong to, they are retired once it is no longer reachable
+	 */
+	public static Counters create(Object owner) {
+		final Counters counters = new Counters();
+		COUNTERS.add(counters);
+		CLEANER.register(owner, () -> retire(counters));
+		return counters;
+	}
+
+	private static void retire(Counters counters) {
+		synchronized (RETIRED) {
+			for (int i = 0; i < COUNT; i++) {
+				RETIRED[i] += counters.values[i];
+			}
+
+			COUNTERS.remove(counters);
+		}
+	}
+
+	/**
+	 * @return the running total of the statistic over all contexts
+	 */
+	public static long total(int stat) {
+		return sum()[stat];
+	}
+
+	private static long[] sum() {
+		final long[] result;
+
+		// Retiring moves counts from the list to the total, both are read together so that they are not counted twice.
+		synchronized (RETIRED) {
+			result = RETIRED.clone();
+
+			for (Counters counters : COUNTERS) {
+				for (int i = 0; i < COUNT; i++) {
+					result[i] += counters.values[i];
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Adds the statistics of the last second to the debug HUD lines.
+	 */
+	public static void addDebugText(List<String> lines) {
+		final long[] rates = HUD_WINDOW.update(System.nanoTime());
+
+		lines.add(String.format(Locale.ROOT, "[Notebook Renderer] Blocks/s: %d (%d vanilla models), quads/s: %d",
+				rates[BLOCKS], rates[VANILLA_BLOCKS], rates[QUADS]));
+		lines.add(String.format(Locale.ROOT, "[Notebook Renderer] Quads/s culled: %d, transformed away: %d, AO: %d, flat: %d",
+				rates[CULLED], rates[TRANSFORM_REJECTED], rates[AO_QUADS], rates[FLAT_QUADS]));
+		lines.add(String.format(Locale.ROOT, "[Notebook Renderer] Sections/s: %d (%.2f ms avg), items/s: %d (%d cached, %.1f us avg)",
+				rates[SECTIONS], average(rates[SECTION_NANOS], rates[SECTIONS]) / 1_000_000D,
+				rates[ITEMS], rates[CACHED_ITEMS], average(rates[ITEM_NANOS], rates[ITEMS]) / 1_000D));
+	}
+
+	/**
+	 * Commits a {@link RendererStatsEvent} with the statistics since the previous one, called periodically by JFR.
+	 */
+	public static void emitEvent() {
+		final long[] delta = EVENT_WINDOW.update(System.nanoTime());
+		final RendererStatsEvent event = new RendererStatsEvent();
+		event.blocks = delta[BLOCKS];
+		event.vanillaBlocks = delta[VANILLA_BLOCKS];
+		event.quads = delta[QUADS];
+		event.transformRejected = delta[TRANSFORM_REJECTED];
+		event.culled = delta[CULLED];
+		event.aoQuads = delta[AO_QUADS];
+		event.flatQuads = delta[FLAT_QUADS];
+		event.sections = delta[SECTIONS];
+		event.sectionTime = delta[SECTION_NANOS];
+		event.items = delta[ITEMS];
+		event.cachedItems = delta[CACHED_ITEMS];
+		event.itemTime = delta[ITEM_NANOS];
+		event.commit();
+	}
+
+	private static double average(long total, long count) {
+		return count == 0 ? 0 : (double) total / count;
+	}
+
+	public static final class Counters {
+		private final long[] values = new long[COUNT];
+
+		private Counters() { }
+
+		public long get(int stat) {
+			return values[stat];
+		}
+
+		public void increment(int stat) {
+			values[stat]++;
+		}
+
+		public void add(int stat, long amount) {
+			values[stat] += amount;
+		}
+	}
+
+	/**
+	 * Turns the running totals into the change over roughly the last second.
+	 */
+	private static final class Window {
+		private static final long LENGTH = 1_000_000_000L;
+
+		private long[] previous = new long[COUNT];
+		private long[] delta = new long[COUNT];
+		private long lastUpdate;
+
+		synchronized long[] update(long now) {
+			if (now - lastUpdate >= LENGTH) {
+				final long[] current = sum();
+
+				for (int i = 0; i < COUNT; i++) {
+					delta[i] = current[i] - previous[i];
+				}
+
+				previous = current;
+				lastUpdate = now;
+			}
+
+			return delta;
+		}
+	}
+}
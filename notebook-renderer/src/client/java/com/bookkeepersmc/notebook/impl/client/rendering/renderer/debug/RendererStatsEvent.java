@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("notebook.renderer.Statistics")
+@Label("Renderer Statistics")
+@Description("Work done by the Notebook renderer since the previous event")
+@Category({"Notebook", "Renderer"})
+@Period("1 s")
+@StackTrace(false)
+public class RendererStatsEvent extends Event {
+	@Label("Blocks")
+	long blocks;
+	@Label("Vanilla Model Blocks")
+	long vanillaBlocks;
+	@Label("Quads")
+	long quads;
+	@Label("Quads Rejected By Transforms")
+	long transformRejected;
+	@Label("Culled Quads")
+	long culled;
+	@Label("AO Quads")
+	long aoQuads;
+	@Label("Flat Quads")
+	long flatQuads;
+	@Label("Section Builds")
+	long sections;
+	@Label("Section Build Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long sectionTime;
+	@Label("Items")
+	long items;
+	@Label("Cached Items")
+	long cachedItems;
+	@Label("Item Render Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long itemTime;
+}
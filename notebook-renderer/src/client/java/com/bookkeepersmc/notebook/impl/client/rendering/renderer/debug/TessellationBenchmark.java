@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.mojang.blaze3d.platform.InputUtil;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.BuiltBuffer;
+import com.mojang.blaze3d.vertex.Tessellator;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormats;
+import org.joml.Matrix4f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.minecraft.block.BlockRenderType;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.color.item.ItemColors;
+import net.minecraft.client.option.KeyBind;
+import net.minecraft.client.render.LightmapTextureManager;
+import net.minecraft.client.render.OverlayTexture;
+import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.render.block.BlockRenderManager;
+import net.minecraft.client.render.model.BakedModel;
+import net.minecraft.client.render.model.BakedQuad;
+import net.minecraft.client.render.model.json.ModelTransformationMode;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.BuiltInRegistries;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.random.RandomGenerator;
+import net.minecraft.world.BlockRenderView;
+
+import com.bookkeepersmc.notebook.api.client.event.lifecycle.v1.ClientTickEvents;
+import com.bookkeepersmc.notebook.api.client.keybind.v1.KeybindHelper;
+import com.bookkeepersmc.notebook.api.renderer.v1.material.RenderMaterial;
+import com.bookkeepersmc.notebook.api.renderer.v1.material.ShadeMode;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.Mesh;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.MeshBuilder;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadEmitter;
+import com.bookkeepersmc.notebook.api.renderer.v1.model.ForwardingBakedModel;
+import com.bookkeepersmc.notebook.api.renderer.v1.model.ModelHelper;
+import com.bookkeepersmc.notebook.api.renderer.v1.render.RenderContext;
+import com.bookkeepersmc.notebook.api.renderer.v1.render.SimpleQuadTransform;
+import com.bookkeepersmc.notebook.api.util.TriState;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.NotebookRenderer;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.render.ItemRenderContext;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.render.TerrainRenderContext;
+
+/**
+ * Debug harness that measures terrain tessellation on the sections around the player. With
+ * {@code -Dnotebook.renderer.debug.benchmark=true}, it registers a key binding, unbound by default, that runs it.
+ *
+ * <p>The blocks are tessellated by a context of its own into a CPU-side {@link BufferBuilder}, nothing is uploaded.
+ * The context is reused by every run, and the quad counts are read from its own counters.
+ * Every pass is run with ambient occlusion on and off, once with the models as they are
+ * (vanilla models go through the vanilla model encoder) and once with every model replaced by a pre-built mesh.
+ * With ambient occlusion on, the meshes are also rendered under 1, 3 and 6 stacked quad transforms, once as
+ * {@link SimpleQuadTransform}s that the renderer fuses and once as lambdas doing the same work one after the other.
+ * The passes with ambient occlusion on are repeated with every vertex written by the per-attribute
+ * {@link com.mojang.blaze3d.vertex.VertexConsumer} calls instead of the single bulk call, to compare the two.
+ * Ambient occlusion is forced on or off on the context, the game option is left alone.
+ *
+ * <p>Item rendering is measured on a full inventory grid of different items rendered in the GUI by an item render context
+ * of its own, once with the models reporting static item quads, so that every frame after the first is replayed from
+ * the quad cache, and once without. Items with a glint or a built-in renderer are left out.
+ * It needs a running client, since the renderer reads the block colors, and the light levels come from the client world.
+ */
+public final class TessellationBenchmark {
+	public static final boolean ENABLED = Boolean.getBoolean("notebook.renderer.debug.benchmark");
+	private static final int RADIUS = Integer.getInteger("notebook.renderer.debug.benchmark.radius", 2);
+	private static final int ITERATIONS = Integer.getInteger("notebook.renderer.debug.benchmark.iterations", 5);
+	private static final int ITEMS = Integer.getInteger("notebook.renderer.debug.benchmark.items", 45);
+	private static final int ITEM_FRAMES = Integer.getInteger("notebook.renderer.debug.benchmark.itemFrames", 200);
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TessellationBenchmark.class);
+	private static final SimpleQuadTransform SIMPLE_TRANSFORM = SimpleQuadTransform.builder().affine(new Matrix4f()).build();
+	private static final RenderContext.QuadTransform LAMBDA_TRANSFORM = quad -> {
+		SimpleQuadTransform.transformGeometry(quad, SIMPLE_TRANSFORM.matrix(), SIMPLE_TRANSFORM.normalMatrix());
+		return true;
+	};
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private static KeyBind runKeyBind;
+	private static TerrainRenderContext context;
+	private static ItemRenderContext itemContext;
+	private static boolean running;
+
+	private TessellationBenchmark() { }
+
+	public static void register() {
+		runKeyBind = KeybindHelper.registerKeybind(new KeyBind("key.notebook-renderer.benchmark",
+				InputUtil.Type.KEYSYM,
+				InputUtil.UNKNOWN_KEY.getKeyCode(),
+				"key.categories.misc"
+		));
+		ClientTickEvents.END_CLIENT_TICK.register(TessellationBenchmark::onClientEndTick);
+	}
+
+	private static void onClientEndTick(Minecraft client) {
+		while (runKeyBind.wasPressed()) {
+			run(client);
+		}
+	}
+
+	private static void run(Minecraft client) {
+		final ClientWorld world = client.world;
+
+		if (running || world == null || client.player == null) {
+			return;
+		}
+
+		if (context == null) {
+			context = new TerrainRenderContext();
+			itemContext = new ItemRenderContext(ItemColors.create(client.getBlockColors()));
+		}
+
+		running = true;
+
+		try {
+			runPasses(client, world);
+		} finally {
+			context.overrideAmbientOcclusion(TriState.DEFAULT);
+			running = false;
+		}
+	}
+
+	private static void runPasses(Minecraft client, ClientWorld world) {
+		final List<ChunkSectionPos> sections = new ArrayList<>();
+		final ChunkSectionPos center = ChunkSectionPos.from(client.player.getBlockPos());
+
+		for (int y = -RADIUS; y <= RADIUS; y++) {
+			for (int z = -RADIUS; z <= RADIUS; z++) {
+				for (int x = -RADIUS; x <= RADIUS; x++) {
+					final ChunkSectionPos pos = center.add(x, y, z);
+
+					if (!world.isOutOfHeightLimit(pos.getMinY()) && world.getChunkManager().isChunkLoaded(pos.getX(), pos.getZ())) {
+						sections.add(pos);
+					}
+				}
+			}
+		}
+
+		final BlockRenderManager renderManager = client.getBlockRenderManager();
+		final Map<BlockState, BakedModel> meshModels = new IdentityHashMap<>();
+		final Function<BlockState, BakedModel> models = renderManager::getModel;
+		final Function<BlockState, BakedModel> meshes = state -> meshModels.computeIfAbsent(state, s -> new MeshModel(renderManager.getModel(s), s));
+
+		LOGGER.info("Tessellating {} sections around {}, {} iterations per pass", sections.size(), center, ITERATIONS);
+
+		for (boolean useAo : new boolean[] { true, false }) {
+			context.overrideAmbientOcclusion(TriState.of(useAo));
+			runPass(useAo ? "model, AO" : "model, flat", world, sections, models);
+			runPass(useAo ? "mesh, AO" : "mesh, flat", world, sections, meshes);
+		}
+
+		context.overrideAmbientOcclusion(TriState.TRUE);
+		context.useBulkVertices(false);
+
+		try {
+			runPass("model, AO, attrs", world, sections, models);
+			runPass("mesh, AO, attrs", world, sections, meshes);
+		} finally {
+			context.useBulkVertices(true);
+		}
+
+		for (int count : new int[] { 1, 3, 6 }) {
+			runPass("mesh, " + count + " simple", world, sections, transformed(meshes, SIMPLE_TRANSFORM, count));
+			runPass("mesh, " + count + " lambda", world, sections, transformed(meshes, LAMBDA_TRANSFORM, count));
+		}
+
+		final List<ItemStack> stacks = new ArrayList<>();
+		final List<BakedModel> itemModels = new ArrayList<>();
+
+		for (Item item : BuiltInRegistries.ITEM) {
+			if (stacks.size() == ITEMS) {
+				break;
+			}
+
+			final ItemStack stack = new ItemStack(item);
+			final BakedModel model = client.getItemRenderer().getModel(stack, world, null, 0);
+
+			if (!stack.isEmpty() && !stack.hasGlint() && !model.isBuiltin()) {
+				stacks.add(stack);
+				itemModels.add(model);
+			}
+		}
+
+		LOGGER.info("Rendering a grid of {} items, {} frames per pass", stacks.size(), ITEM_FRAMES);
+		runItemPass("items, uncached", stacks, itemModels.stream().<BakedModel>map(model -> new ItemModel(model, false)).toList());
+		runItemPass("items, cached", stacks, itemModels.stream().<BakedModel>map(model -> new ItemModel(model, true)).toList());
+	}
+
+	private static void runItemPass(String name, List<ItemStack> stacks, List<BakedModel> models) {
+		// Warm up, which also fills the quad cache for the cached pass.
+		renderItems(stacks, models);
+
+		final long items = itemContext.getStats().get(RendererStats.ITEMS);
+		final long cachedItems = itemContext.getStats().get(RendererStats.CACHED_ITEMS);
+		final long allocated = THREADS.getCurrentThreadAllocatedBytes();
+		final long start = System.nanoTime();
+
+		for (int i = 0; i < ITEM_FRAMES; i++) {
+			renderItems(stacks, models);
+		}
+
+		final long nanos = System.nanoTime() - start;
+
+		LOGGER.info(String.format(Locale.ROOT, "%-16s %8.3f ms/grid, %8.3f us/item, %6d of %6d items cached, %8d bytes allocated/grid",
+				name, nanos / 1_000_000D / ITEM_FRAMES, nanos / 1_000D / (itemContext.getStats().get(RendererStats.ITEMS) - items),
+				itemContext.getStats().get(RendererStats.CACHED_ITEMS) - cachedItems, itemContext.getStats().get(RendererStats.ITEMS) - items,
+				(THREADS.getCurrentThreadAllocatedBytes() - allocated) / ITEM_FRAMES));
+	}
+
+	/**
+	 * Renders one frame of the grid, laid out nine items to a row like the inventory screen.
+	 */
+	private static void renderItems(List<ItemStack> stacks, List<BakedModel> models) {
+		final BufferBuilder buffer = Tessellator.getInstance().begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR_TEXTURE_OVERLAY_LIGHT_NORMAL);
+		final VertexConsumerProvider provider = layer -> buffer;
+		final MatrixStack matrices = new MatrixStack();
+
+		for (int i = 0; i < stacks.size(); i++) {
+			matrices.push();
+			matrices.translate(i % 9 * 18 + 8, i / 9 * 18 + 8, 150);
+			matrices.scale(16, -16, 16);
+			matrices.translate(-0.5F, -0.5F, -0.5F);
+			itemContext.renderModel(stacks.get(i), ModelTransformationMode.GUI, matrices, provider, LightmapTextureManager.MAX_LIGHT_COORDINATE, OverlayTexture.DEFAULT_UV, models.get(i));
+			matrices.pop();
+		}
+
+		try (BuiltBuffer built = buffer.end()) {
+			// Only built to reset the tessellator's buffer.
+		} catch (IllegalStateException e) {
+			// Nothing was emitted.
+		}
+	}
+
+	private static Function<BlockState, BakedModel> transformed(Function<BlockState, BakedModel> models, RenderContext.QuadTransform transform, int count) {
+		final Map<BlockState, BakedModel> transformedModels = new IdentityHashMap<>();
+		return state -> transformedModels.computeIfAbsent(state, s -> new TransformedModel(models.apply(s), transform, count));
+	}
+
+	private static void runPass(String name, BlockRenderView world, List<ChunkSectionPos> sections, Function<BlockState, BakedModel> models) {
+		// Warm up, so that lazily built caches and the JIT do not end up in the measurement.
+		tessellate(context, world, sections, models);
+
+		final long quads = context.getStats().get(RendererStats.QUADS);
+		final long allocated = THREADS.getCurrentThreadAllocatedBytes();
+		final long start = System.nanoTime();
+		long blocks = 0;
+
+		for (int i = 0; i < ITERATIONS; i++) {
+			blocks += tessellate(context, world, sections, models);
+		}
+
+		final long nanos = System.nanoTime() - start;
+		final long passQuads = context.getStats().get(RendererStats.QUADS) - quads;
+		final long passSections = (long) sections.size() * ITERATIONS;
+
+		LOGGER.info(String.format(Locale.ROOT, "%-16s %8.3f ms/section, %10.0f quads/s, %6d blocks/section, %8d bytes allocated/section",
+				name, nanos / 1_000_000D / passSections, passQuads / (nanos / 1_000_000_000D), blocks / passSections,
+				(THREADS.getCurrentThreadAllocatedBytes() - allocated) / passSections));
+	}
+
+	private static long tessellate(TerrainRenderContext context, BlockRenderView world, List<ChunkSectionPos> sections, Function<BlockState, BakedModel> models) {
+		final Tessellator tessellator = Tessellator.getInstance();
+		final MatrixStack matrices = new MatrixStack();
+		final BlockPos.Mutable pos = new BlockPos.Mutable();
+		long blocks = 0;
+
+		for (ChunkSectionPos section : sections) {
+			final BufferBuilder buffer = tessellator.begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_COLOR_TEXTURE_LIGHT_NORMAL);
+			final Function<RenderLayer, BufferBuilder> bufferFunc = layer -> buffer;
+			context.prepare(world, section, bufferFunc);
+
+			try {
+				for (int y = 0; y < 16; y++) {
+					for (int z = 0; z < 16; z++) {
+						for (int x = 0; x < 16; x++) {
+							pos.set(section.getMinX() + x, section.getMinY() + y, section.getMinZ() + z);
+							final BlockState state = world.getBlockState(pos);
+
+							if (state.getRenderType() != BlockRenderType.MODEL) {
+								continue;
+							}
+
+							matrices.push();
+							matrices.translate(x, y, z);
+							context.tessellateBlock(state, pos, models.apply(state), matrices);
+							matrices.pop();
+							blocks++;
+						}
+					}
+				}
+			} finally {
+				context.release();
+			}
+
+			try (BuiltBuffer built = buffer.end()) {
+				// Only built to reset the tessellator's buffer.
+			} catch (IllegalStateException e) {
+				// Nothing was emitted, all faces of the section are culled.
+			}
+		}
+
+		return blocks;
+	}
+
+	/**
+	 * Renders the quads of the wrapped model from a mesh built once, like models using the renderer API do.
+	 */
+	private static class MeshModel extends ForwardingBakedModel {
+		private static final RenderMaterial STANDARD_MATERIAL = NotebookRenderer.INSTANCE.materialFinder().shadeMode(ShadeMode.VANILLA).find();
+		private static final RenderMaterial NO_AO_MATERIAL = NotebookRenderer.INSTANCE.materialFinder().shadeMode(ShadeMode.VANILLA).ambientOcclusion(TriState.FALSE).find();
+
+		private final Mesh mesh;
+
+		MeshModel(BakedModel model, BlockState state) {
+			wrapped = model;
+
+			final RandomGenerator random = RandomGenerator.create(42L);
+			final RenderMaterial material = model.useAmbientOcclusion() ? STANDARD_MATERIAL : NO_AO_MATERIAL;
+			final MeshBuilder builder = NotebookRenderer.INSTANCE.meshBuilder();
+			final QuadEmitter emitter = builder.getEmitter();
+
+			for (int i = 0; i <= ModelHelper.NULL_FACE_ID; i++) {
+				final Direction cullFace = ModelHelper.faceFromIndex(i);
+
+				for (BakedQuad quad : model.getQuads(state, cullFace, random)) {
+					emitter.fromVanilla(quad, material, cullFace);
+					emitter.emit();
+				}
+			}
+
+			mesh = builder.build();
+		}
+
+		@Override
+		public boolean isVanillaAdapter() {
+			return false;
+		}
+
+		@Override
+		public void emitBlockQuads(BlockRenderView blockView, BlockState state, BlockPos pos, Supplier<RandomGenerator> randomSupplier, RenderContext context) {
+			mesh.outputTo(context.getEmitter());
+		}
+	}
+
+	/**
+	 * Renders the item quads of the wrapped model, reporting them as static or not.
+	 */
+	private static class ItemModel extends ForwardingBakedModel {
+		private final boolean staticQuads;
+
+		ItemModel(BakedModel model, boolean staticQuads) {
+			wrapped = model;
+			this.staticQuads = staticQuads;
+		}
+
+		@Override
+		public boolean isVanillaAdapter() {
+			return false;
+		}
+
+		@Override
+		public boolean hasStaticItemQuads(ItemStack stack, ModelTransformationMode transformMode) {
+			return staticQuads;
+		}
+	}
+
+	/**
+	 * Pushes the same transform a number of times around the quads of the wrapped model.
+	 */
+	private static class TransformedModel extends ForwardingBakedModel {
+		private final RenderContext.QuadTransform transform;
+		private final int count;
+
+		TransformedModel(BakedModel model, RenderContext.QuadTransform transform, int count) {
+			wrapped = model;
+			this.transform = transform;
+			this.count = count;
+		}
+
+		@Override
+		public boolean isVanillaAdapter() {
+			return false;
+		}
+
+		@Override
+		public void emitBlockQuads(BlockRenderView blockView, BlockState state, BlockPos pos, Supplier<RandomGenerator> randomSupplier, RenderContext context) {
+			for (int i = 0; i < count; i++) {
+				context.pushTransform(transform);
+			}
+
+			super.emitBlockQuads(blockView, state, pos, randomSupplier, context);
+
+			for (int i = 0; i < count; i++) {
+				context.popTransform();
+			}
+		}
+	}
+}
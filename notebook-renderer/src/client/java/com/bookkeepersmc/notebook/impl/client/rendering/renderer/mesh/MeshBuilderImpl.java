@@ -34,12 +34,26 @@ import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadEmitter;
  * The one interesting bit is in {@link Maker#emitDirectly()}.
  */
 public class MeshBuilderImpl implements MeshBuilder {
-	private int[] data = new int[256];
+	private int[] data;
 	private int index = 0;
-	private int limit = data.length;
+	private int limit;
 	private final Maker maker = new Maker();
 
 	public MeshBuilderImpl() {
+		this(new int[256]);
+	}
+
+	/**
+	 * Creates a builder that does not need to grow until more than {@code expectedQuads} quads are emitted.
+	 */
+	public MeshBuilderImpl(int expectedQuads) {
+		// The maker always needs room for the quad after the last emitted one.
+		this(new int[(Math.max(expectedQuads, 0) + 1) * EncodingFormat.TOTAL_STRIDE]);
+	}
+
+	private MeshBuilderImpl(int[] data) {
+		this.data = data;
+		limit = data.length;
 		ensureCapacity(EncodingFormat.TOTAL_STRIDE);
 		maker.data = data;
 		maker.baseIndex = index;
@@ -66,10 +80,25 @@ public class MeshBuilderImpl implements MeshBuilder {
 	public Mesh build() {
 		final int[] packed = new int[index];
 		System.arraycopy(data, 0, packed, 0, index);
+		reset();
+		return new MeshImpl(packed);
+	}
+
+	@Override
+	public Mesh buildOffHeap() {
+		if (index == 0) {
+			return build();
+		}
+
+		final Mesh mesh = new OffHeapMeshImpl(data, index);
+		reset();
+		return mesh;
+	}
+
+	private void reset() {
 		index = 0;
 		maker.baseIndex = index;
 		maker.clear();
-		return new MeshImpl(packed);
 	}
 
 	/**
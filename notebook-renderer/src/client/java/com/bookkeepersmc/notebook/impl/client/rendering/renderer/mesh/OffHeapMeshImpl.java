@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.mesh;
+
+import java.lang.ref.Cleaner;
+import java.lang.ref.Reference;
+import java.nio.IntBuffer;
+import java.util.function.Consumer;
+
+import org.lwjgl.system.MemoryUtil;
+
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.Mesh;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadEmitter;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadView;
+
+/**
+ * {@link Mesh} with the same encoding as {@link MeshImpl}, but stored in native memory so that large meshes
+ * kept for a long time do not have to be scanned and copied by the garbage collector.
+ *
+ * <p>The memory is freed once the mesh is no longer reachable, which is usually after the resource reload
+ * that replaced the models holding it. It is not freed at the reload itself, since chunk builds started
+ * before the reload may still be reading the mesh.
+ */
+public class OffHeapMeshImpl implements Mesh {
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	private final IntBuffer data;
+
+	/**
+	 * Used to satisfy external calls to {@link #forEach(Consumer)}, each one with room for a single quad.
+	 * Kept per mesh like in {@link MeshImpl}, so that a consumer can iterate another mesh without disturbing its quad.
+	 */
+	private final ThreadLocal<QuadViewImpl> cursorPool = ThreadLocal.withInitial(() -> {
+		final QuadViewImpl cursor = new QuadViewImpl();
+		cursor.data = new int[EncodingFormat.TOTAL_STRIDE];
+		return cursor;
+	});
+
+	OffHeapMeshImpl(int[] source, int length) {
+		final long size = (long) length * Integer.BYTES;
+		final long address = MemoryUtil.nmemAlloc(size);
+
+		if (address == MemoryUtil.NULL) {
+			throw new OutOfMemoryError("Failed to allocate " + size + " bytes for an off-heap mesh");
+		}
+
+		data = MemoryUtil.memIntBuffer(address, length);
+		data.put(0, source, 0, length);
+		CLEANER.register(this, new Free(address));
+	}
+
+	@Override
+	public void forEach(Consumer<QuadView> consumer) {
+		final QuadViewImpl cursor = cursorPool.get();
+		final int limit = data.capacity();
+		int index = 0;
+
+		try {
+			while (index < limit) {
+				data.get(index, cursor.data, 0, EncodingFormat.TOTAL_STRIDE);
+				cursor.baseIndex = 0;
+				cursor.load();
+				consumer.accept(cursor);
+				index += EncodingFormat.TOTAL_STRIDE;
+			}
+		} finally {
+			// The buffer does not keep the mesh alive, so it could otherwise be freed while being read.
+			Reference.reachabilityFence(this);
+		}
+	}
+
+	@Override
+	public void outputTo(QuadEmitter emitter) {
+		MutableQuadViewImpl e = (MutableQuadViewImpl) emitter;
+		final IntBuffer data = this.data;
+		final int limit = data.capacity();
+		int index = 0;
+
+		try {
+			while (index < limit) {
+				data.get(index, e.data, e.baseIndex, EncodingFormat.TOTAL_STRIDE);
+				e.load();
+				e.emitDirectly();
+				index += EncodingFormat.TOTAL_STRIDE;
+			}
+		} finally {
+			Reference.reachabilityFence(this);
+		}
+
+		e.clear();
+	}
+
+	private record Free(long address) implements Runnable {
+		@Override
+		public void run() {
+			MemoryUtil.nmemFree(address);
+		}
+	}
+}
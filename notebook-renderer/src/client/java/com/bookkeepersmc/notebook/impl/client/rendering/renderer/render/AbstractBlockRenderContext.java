@@ -45,6 +45,8 @@ import com.bookkeepersmc.notebook.api.util.TriState;
 import com.bookkeepersmc.notebook.impl.client.rendering.NotebookBuiltinRenderer;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.aocalc.AoCalculator;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.aocalc.AoConfig;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.ModelRenderEvent;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.RendererStats;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.helper.ColorHelper;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.mesh.EncodingFormat;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.mesh.MutableQuadViewImpl;
@@ -100,11 +102,15 @@ public abstract class AbstractBlockRenderContext extends AbstractRenderContext {
 	}
 
 	private void renderQuad(MutableQuadViewImpl quad) {
+		stats.increment(RendererStats.QUADS);
+
 		if (!transform(quad)) {
+			stats.increment(RendererStats.TRANSFORM_REJECTED);
 			return;
 		}
 
 		if (isFaceCulled(quad.cullFace())) {
+			stats.increment(RendererStats.CULLED);
 			return;
 		}
 
@@ -116,11 +122,36 @@ public abstract class AbstractBlockRenderContext extends AbstractRenderContext {
 		final boolean vanillaShade = mat.shadeMode() == ShadeMode.VANILLA;
 		final VertexConsumer vertexConsumer = getVertexConsumer(blockInfo.effectiveRenderLayer(mat.blendMode()));
 
+		stats.increment(ao ? RendererStats.AO_QUADS : RendererStats.FLAT_QUADS);
 		colorizeQuad(quad, colorIndex);
 		shadeQuad(quad, ao, emissive, vanillaShade);
 		bufferQuad(quad, vertexConsumer);
 	}
 
+	/**
+	 * Counts the block and records a {@link ModelRenderEvent} if it took long. Called by subclasses around the model output,
+	 * with a null event when it is not enabled.
+	 */
+	protected void finishBlock(BakedModel model, @Nullable ModelRenderEvent event) {
+		stats.increment(RendererStats.BLOCKS);
+
+		if (model.isVanillaAdapter()) {
+			stats.increment(RendererStats.VANILLA_BLOCKS);
+		}
+
+		if (event == null) {
+			return;
+		}
+
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.model = model.getClass().getName();
+			event.target = blockInfo.blockState.toString();
+			event.commit();
+		}
+	}
+
 	/** handles block color, common to all renders. */
 	private void colorizeQuad(MutableQuadViewImpl quad, int colorIndex) {
 		if (colorIndex != -1) {
@@ -34,13 +34,23 @@ import org.joml.Vector4f;
 import com.bookkeepersmc.notebook.api.renderer.v1.mesh.Mesh;
 import com.bookkeepersmc.notebook.api.renderer.v1.mesh.MutableQuadView;
 import com.bookkeepersmc.notebook.api.renderer.v1.render.RenderContext;
+import com.bookkeepersmc.notebook.api.renderer.v1.render.SimpleQuadTransform;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.RendererStats;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.mesh.MutableQuadViewImpl;
 
 abstract class AbstractRenderContext implements RenderContext {
 	private static final QuadTransform NO_TRANSFORM = q -> true;
 
 	private QuadTransform activeTransform = NO_TRANSFORM;
+	/**
+	 * The transforms to run, last one first. Consecutive {@link SimpleQuadTransform}s share one entry,
+	 * a {@link FusedQuadTransform}, so this can be shorter than the number of pushed transforms.
+	 */
 	private final ObjectArrayList<QuadTransform> transformStack = new ObjectArrayList<>();
+	/** For each push, the entry of {@link #transformStack} it replaced, or {@code null} if it added one. */
+	private final ObjectArrayList<QuadTransform> replacedTransforms = new ObjectArrayList<>();
+	/** Fused transforms by push depth, reused across pushes. */
+	private final ObjectArrayList<FusedQuadTransform> fusedTransforms = new ObjectArrayList<>();
 	private final QuadTransform stackTransform = q -> {
 		int i = transformStack.size() - 1;
 
@@ -56,6 +66,10 @@ abstract class AbstractRenderContext implements RenderContext {
 	@Deprecated
 	private final Consumer<Mesh> meshConsumer = mesh -> mesh.outputTo(getEmitter());
 
+	protected final RendererStats.Counters stats = RendererStats.create(this);
+	/** Only turned off by the tessellation benchmark, to compare against the per-attribute calls. */
+	protected boolean bulkVertices = true;
+
 	protected Matrix4f matrix;
 	protected Matrix3f normalMatrix;
 	protected int overlay;
@@ -77,23 +91,46 @@ abstract class AbstractRenderContext implements RenderContext {
 			throw new NullPointerException("Renderer received null QuadTransform.");
 		}
 
-		transformStack.push(transform);
+		final int depth = replacedTransforms.size();
+		final QuadTransform top = transformStack.isEmpty() ? null : transformStack.top();
 
-		if (transformStack.size() == 1) {
-			activeTransform = transform;
-		} else if (transformStack.size() == 2) {
-			activeTransform = stackTransform;
+		if (transform instanceof SimpleQuadTransform simple && (top instanceof SimpleQuadTransform || top instanceof FusedQuadTransform)) {
+			if (fusedTransforms.size() == depth) {
+				fusedTransforms.add(new FusedQuadTransform());
+			}
+
+			final FusedQuadTransform fused = fusedTransforms.get(depth);
+			fused.fuse(simple, top);
+			transformStack.set(transformStack.size() - 1, fused);
+			replacedTransforms.push(top);
+		} else {
+			transformStack.push(transform);
+			replacedTransforms.push(null);
 		}
+
+		updateActiveTransform();
 	}
 
 	@Override
 	public void popTransform() {
-		transformStack.pop();
+		final QuadTransform replaced = replacedTransforms.pop();
+
+		if (replaced == null) {
+			transformStack.pop();
+		} else {
+			transformStack.set(transformStack.size() - 1, replaced);
+		}
+
+		updateActiveTransform();
+	}
 
-		if (transformStack.size() == 0) {
+	private void updateActiveTransform() {
+		if (transformStack.isEmpty()) {
 			activeTransform = NO_TRANSFORM;
 		} else if (transformStack.size() == 1) {
 			activeTransform = transformStack.get(0);
+		} else {
+			activeTransform = stackTransform;
 		}
 	}
 
@@ -104,7 +141,14 @@ abstract class AbstractRenderContext implements RenderContext {
 		return meshConsumer;
 	}
 
-	/** final output step, common to all renders. */
+	/**
+	 * final output step, common to all renders.
+	 *
+	 * <p>Each vertex is written with the single-call {@link VertexConsumer#vertex(float, float, float, int, float, float, int, int, float, float, float)},
+	 * which {@link com.mojang.blaze3d.vertex.BufferBuilder} implements by writing all attributes straight into its buffer
+	 * for the block and entity formats. Other consumers fall back to the per-attribute calls through the default implementation.
+	 * The per-attribute calls are kept for {@link com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.TessellationBenchmark}.
+	 */
 	protected void bufferQuad(MutableQuadViewImpl quad, VertexConsumer vertexConsumer) {
 		final Vector4f posVec = this.posVec;
 		final Vector3f normalVec = this.normalVec;
@@ -117,23 +161,28 @@ abstract class AbstractRenderContext implements RenderContext {
 			normalVec.mul(normalMatrix);
 		}
 
+		final int overlay = this.overlay;
+
 		for (int i = 0; i < 4; i++) {
 			posVec.set(quad.x(i), quad.y(i), quad.z(i), 1.0f);
 			posVec.mul(matrix);
-			vertexConsumer.xyz(posVec.x(), posVec.y(), posVec.z());
-
-			final int color = quad.color(i);
-			vertexConsumer.color((color >>> 16) & 0xFF, (color >>> 8) & 0xFF, color & 0xFF, (color >>> 24) & 0xFF);
-			vertexConsumer.uv0(quad.u(i), quad.v(i));
-			vertexConsumer.uv1(overlay);
-			vertexConsumer.uv2(quad.lightmap(i));
 
 			if (useNormals) {
 				quad.copyNormal(i, normalVec);
 				normalVec.mul(normalMatrix);
 			}
 
-			vertexConsumer.normal(normalVec.x(), normalVec.y(), normalVec.z());
+			if (bulkVertices) {
+				vertexConsumer.vertex(posVec.x(), posVec.y(), posVec.z(), quad.color(i), quad.u(i), quad.v(i), overlay, quad.lightmap(i), normalVec.x(), normalVec.y(), normalVec.z());
+			} else {
+				final int color = quad.color(i);
+				vertexConsumer.xyz(posVec.x(), posVec.y(), posVec.z());
+				vertexConsumer.color((color >>> 16) & 0xFF, (color >>> 8) & 0xFF, color & 0xFF, (color >>> 24) & 0xFF);
+				vertexConsumer.uv0(quad.u(i), quad.v(i));
+				vertexConsumer.uv1(overlay);
+				vertexConsumer.uv2(quad.lightmap(i));
+				vertexConsumer.normal(normalVec.x(), normalVec.y(), normalVec.z());
+			}
 		}
 	}
 }
@@ -38,6 +38,7 @@ import net.minecraft.world.BlockRenderView;
 
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.aocalc.AoCalculator;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.aocalc.AoLuminanceFix;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.ModelRenderEvent;
 
 /**
  * Context for non-terrain block rendering.
@@ -67,6 +68,12 @@ public class BlockRenderContext extends AbstractBlockRenderContext {
 
 	public void render(BlockRenderView blockView, BakedModel model, BlockState state, BlockPos pos, MatrixStack matrixStack, VertexConsumer buffer, boolean cull, RandomGenerator random, long seed, int overlay) {
 		try {
+			final ModelRenderEvent event = ModelRenderEvent.isTypeEnabled() ? new ModelRenderEvent() : null;
+
+			if (event != null) {
+				event.begin();
+			}
+
 			Vec3d offset = state.getModelOffset(pos);
 			matrixStack.translate(offset.x, offset.y, offset.z);
 
@@ -84,6 +91,7 @@ public class BlockRenderContext extends AbstractBlockRenderContext {
 			blockInfo.prepareForBlock(state, pos, model.useAmbientOcclusion());
 
 			model.emitBlockQuads(blockView, state, pos, blockInfo.randomSupplier, this);
+			finishBlock(model, event);
 		} catch (Throwable throwable) {
 			CrashReport crashReport = CrashReport.create(throwable, "Tessellating block model - Indigo Renderer");
 			CrashReportSection crashReportSection = crashReport.addElement("Block model being tessellated");
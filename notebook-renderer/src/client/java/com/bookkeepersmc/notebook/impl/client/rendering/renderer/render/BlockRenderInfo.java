@@ -38,6 +38,7 @@ import net.minecraft.util.random.RandomGenerator;
 import net.minecraft.world.BlockRenderView;
 
 import com.bookkeepersmc.notebook.api.renderer.v1.material.BlendMode;
+import com.bookkeepersmc.notebook.api.util.TriState;
 
 /**
  * Holds, manages, and provides access to the block/world related state
@@ -75,6 +76,9 @@ public class BlockRenderInfo {
 		return random;
 	};
 
+	/** Forces ambient occlusion on or off regardless of the game option, unless default. */
+	TriState ambientOcclusion = TriState.DEFAULT;
+
 	private boolean enableCulling;
 	private int cullCompletionFlags;
 	private int cullResultFlags;
@@ -88,7 +92,7 @@ public class BlockRenderInfo {
 		this.blockPos = blockPos;
 		this.blockState = blockState;
 
-		useAo = Minecraft.isAmbientOcclusionEnabled();
+		useAo = ambientOcclusion.orElseGet(Minecraft::isAmbientOcclusionEnabled);
 		defaultAo = useAo && modelAo && blockState.getLuminance() == 0;
 
 		defaultLayer = RenderLayers.getBlockLayer(blockState);
@@ -22,17 +22,20 @@
  */
 package com.bookkeepersmc.notebook.impl.client.rendering.renderer.render;
 
+import java.util.Arrays;
 import java.util.function.Function;
 
 import com.mojang.blaze3d.vertex.BufferBuilder;
 import it.unimi.dsi.fastutil.longs.Long2FloatOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.render.RenderLayer;
 import net.minecraft.client.render.WorldRenderer;
-import net.minecraft.client.render.chunk.ChunkRenderRegion;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
 import net.minecraft.world.BlockRenderView;
 
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.aocalc.AoCalculator;
@@ -66,14 +69,47 @@ public class ChunkRenderInfo {
 	 * enable disable. Cache clearing happens with the disable. There's no use case for
 	 * us when the cache needs to be disabled (and no apparent case in Mojang's code either)
 	 * so we simply clear the cache at the start of each new chunk. It is also
-	 * not a threadlocal because it's held within a threadlocal BlockRenderer.</ul>
+	 * not a threadlocal because it's held within a threadlocal BlockRenderer.
+	 *
+	 * <li>Lookups within the section and its 1-block border are stored in flat arrays
+	 * indexed by local position. Entries are only valid when their generation matches the
+	 * current one, so nothing needs clearing between sections. The maps only hold the
+	 * rare lookups outside of that volume.</ul>
 	 */
 	private final Long2IntOpenHashMap brightnessCache;
 	private final Long2FloatOpenHashMap aoLevelCache;
 
+	private static final int REGION_SIZE = 18;
+	private static final int REGION_VOLUME = REGION_SIZE * REGION_SIZE * REGION_SIZE;
+
+	private final int[] brightnessValues = new int[REGION_VOLUME];
+	private final int[] brightnessGenerations = new int[REGION_VOLUME];
+	private final float[] aoLevelValues = new float[REGION_VOLUME];
+	private final int[] aoLevelGenerations = new int[REGION_VOLUME];
+	/** Block states read for face culling, shared by all blocks that have the position as neighbor. */
+	private final BlockState[] blockStates = new BlockState[REGION_VOLUME];
+	private final int[] blockStateGenerations = new int[REGION_VOLUME];
+	private int generation;
+	/** Block position of the lowest corner of the cached volume, one block below the section origin on each axis. */
+	private int originX;
+	private int originY;
+	private int originZ;
+
 	private Function<RenderLayer, BufferBuilder> bufferFunc;
 	BlockRenderView blockView;
 
+	private static final Direction[] DIRECTIONS = Direction.values();
+	/** Offset of the neighbor in each direction within the flat caches, indexed by {@link Direction#getId()}. */
+	private static final int[] NEIGHBOR_OFFSETS = new int[DIRECTIONS.length];
+
+	static {
+		for (Direction face : DIRECTIONS) {
+			NEIGHBOR_OFFSETS[face.getId()] = (face.getOffsetY() * REGION_SIZE + face.getOffsetZ()) * REGION_SIZE + face.getOffsetX();
+		}
+	}
+
+	private final BlockPos.Mutable searchPos = new BlockPos.Mutable();
+
 	ChunkRenderInfo() {
 		brightnessCache = new Long2IntOpenHashMap();
 		brightnessCache.defaultReturnValue(Integer.MAX_VALUE);
@@ -81,10 +117,22 @@ public class ChunkRenderInfo {
 		aoLevelCache.defaultReturnValue(Float.MAX_VALUE);
 	}
 
-	void prepare(ChunkRenderRegion blockView, Function<RenderLayer, BufferBuilder> bufferFunc) {
+	void prepare(BlockRenderView blockView, ChunkSectionPos sectionPos, Function<RenderLayer, BufferBuilder> bufferFunc) {
 		this.blockView = blockView;
 		this.bufferFunc = bufferFunc;
 
+		originX = sectionPos.getMinX() - 1;
+		originY = sectionPos.getMinY() - 1;
+		originZ = sectionPos.getMinZ() - 1;
+
+		if (++generation == 0) {
+			// Wrapped around, stale entries could match again.
+			Arrays.fill(brightnessGenerations, 0);
+			Arrays.fill(aoLevelGenerations, 0);
+			Arrays.fill(blockStateGenerations, 0);
+			generation = 1;
+		}
+
 		brightnessCache.clear();
 		aoLevelCache.clear();
 	}
@@ -103,6 +151,19 @@ public class ChunkRenderInfo {
 	 * See also the comments for {@link #brightnessCache}.
 	 */
 	int cachedBrightness(BlockPos pos, BlockState state) {
+		final int index = localIndex(pos);
+
+		if (index >= 0) {
+			if (brightnessGenerations[index] == generation) {
+				return brightnessValues[index];
+			}
+
+			final int result = AoCalculator.getLightmapCoordinates(blockView, state, pos);
+			brightnessValues[index] = result;
+			brightnessGenerations[index] = generation;
+			return result;
+		}
+
 		long key = pos.asLong();
 		int result = brightnessCache.get(key);
 
@@ -114,7 +175,48 @@ public class ChunkRenderInfo {
 		return result;
 	}
 
+	/**
+	 * Equivalent of {@link BlockRenderInfo#shouldDrawFace(Direction)} for a block being tessellated in the section.
+	 * Neighbor states within the section and its border are read once and shared between adjacent blocks.
+	 */
+	boolean shouldDrawFace(BlockPos pos, BlockState state, Direction face) {
+		final int index = sectionIndex(pos);
+		final BlockState neighbor;
+
+		if (index >= 0) {
+			neighbor = cachedNeighborState(index + NEIGHBOR_OFFSETS[face.getId()], pos, face);
+		} else {
+			neighbor = blockView.getBlockState(searchPos.set(pos, face));
+		}
+
+		return Block.shouldDrawSide(state, neighbor, face);
+	}
+
+	private BlockState cachedNeighborState(int index, BlockPos pos, Direction face) {
+		if (blockStateGenerations[index] == generation) {
+			return blockStates[index];
+		}
+
+		final BlockState result = blockView.getBlockState(searchPos.set(pos, face));
+		blockStates[index] = result;
+		blockStateGenerations[index] = generation;
+		return result;
+	}
+
 	float cachedAoLevel(BlockPos pos, BlockState state) {
+		final int index = localIndex(pos);
+
+		if (index >= 0) {
+			if (aoLevelGenerations[index] == generation) {
+				return aoLevelValues[index];
+			}
+
+			final float result = AoLuminanceFix.INSTANCE.apply(blockView, pos, state);
+			aoLevelValues[index] = result;
+			aoLevelGenerations[index] = generation;
+			return result;
+		}
+
 		long key = pos.asLong();
 		float result = aoLevelCache.get(key);
 
@@ -125,4 +227,36 @@ public class ChunkRenderInfo {
 
 		return result;
 	}
+
+	/**
+	 * @return the index of the position in the flat caches, or {@code -1} if it is not within the section itself,
+	 * so that all of its neighbors are within the cached volume
+	 */
+	private int sectionIndex(BlockPos pos) {
+		final int x = pos.getX() - originX;
+		final int y = pos.getY() - originY;
+		final int z = pos.getZ() - originZ;
+
+		if (x < 1 || y < 1 || z < 1 || x > REGION_SIZE - 2 || y > REGION_SIZE - 2 || z > REGION_SIZE - 2) {
+			return -1;
+		}
+
+		return (y * REGION_SIZE + z) * REGION_SIZE + x;
+	}
+
+	/**
+	 * @return the index of the position in the flat caches, or {@code -1} if it is outside the section and its border
+	 */
+	private int localIndex(BlockPos pos) {
+		final int x = pos.getX() - originX;
+		final int y = pos.getY() - originY;
+		final int z = pos.getZ() - originZ;
+
+		// A negative coordinate on any axis sets the sign bit of the combined value.
+		if ((x | y | z) < 0 || x >= REGION_SIZE || y >= REGION_SIZE || z >= REGION_SIZE) {
+			return -1;
+		}
+
+		return (y * REGION_SIZE + z) * REGION_SIZE + x;
+	}
 }
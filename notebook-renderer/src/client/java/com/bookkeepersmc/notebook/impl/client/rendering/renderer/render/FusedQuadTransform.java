@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.render;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.joml.Matrix3f;
+import org.joml.Matrix4f;
+
+import net.minecraft.client.texture.Sprite;
+
+import com.bookkeepersmc.notebook.api.renderer.v1.material.RenderMaterial;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.MutableQuadView;
+import com.bookkeepersmc.notebook.api.renderer.v1.render.RenderContext;
+import com.bookkeepersmc.notebook.api.renderer.v1.render.SimpleQuadTransform;
+
+/**
+ * Consecutive {@link SimpleQuadTransform}s on a transform stack, combined into one transform.
+ * Instances are mutable and owned by a render context, which keeps one per stack depth.
+ */
+final class FusedQuadTransform implements RenderContext.QuadTransform {
+	private final Matrix4f matrix = new Matrix4f();
+	private final Matrix3f normalMatrix = new Matrix3f();
+	private boolean hasMatrix;
+	private int colorMultiplier;
+	private final ObjectArrayList<Sprite> remapFrom = new ObjectArrayList<>();
+	private final ObjectArrayList<Sprite> remapTo = new ObjectArrayList<>();
+	private RenderMaterial material;
+
+	/** Sets this to the combination of {@code first} followed by {@code then}. */
+	void fuse(SimpleQuadTransform first, RenderContext.QuadTransform then) {
+		if (then instanceof FusedQuadTransform fused) {
+			copy(fused);
+		} else {
+			copy((SimpleQuadTransform) then);
+		}
+
+		if (first.matrix() != null) {
+			if (hasMatrix) {
+				matrix.mul(first.matrix());
+				normalMatrix.mul(first.normalMatrix());
+			} else {
+				matrix.set(first.matrix());
+				normalMatrix.set(first.normalMatrix());
+				hasMatrix = true;
+			}
+		}
+
+		colorMultiplier = SimpleQuadTransform.multiplyColor(colorMultiplier, first.colorMultiplier());
+
+		for (int i = first.spriteRemapCount() - 1; i >= 0; i--) {
+			remapFrom.add(0, first.spriteRemapFrom(i));
+			remapTo.add(0, first.spriteRemapTo(i));
+		}
+
+		if (material == null) {
+			material = first.material();
+		}
+	}
+
+	private void copy(FusedQuadTransform other) {
+		matrix.set(other.matrix);
+		normalMatrix.set(other.normalMatrix);
+		hasMatrix = other.hasMatrix;
+		colorMultiplier = other.colorMultiplier;
+		remapFrom.clear();
+		remapFrom.addAll(other.remapFrom);
+		remapTo.clear();
+		remapTo.addAll(other.remapTo);
+		material = other.material;
+	}
+
+	private void copy(SimpleQuadTransform other) {
+		hasMatrix = other.matrix() != null;
+
+		if (hasMatrix) {
+			matrix.set(other.matrix());
+			normalMatrix.set(other.normalMatrix());
+		}
+
+		colorMultiplier = other.colorMultiplier();
+		remapFrom.clear();
+		remapTo.clear();
+
+		for (int i = 0; i < other.spriteRemapCount(); i++) {
+			remapFrom.add(other.spriteRemapFrom(i));
+			remapTo.add(other.spriteRemapTo(i));
+		}
+
+		material = other.material();
+	}
+
+	@Override
+	public boolean transform(MutableQuadView quad) {
+		for (int i = 0; i < remapFrom.size(); i++) {
+			SimpleQuadTransform.remapSprite(quad, remapFrom.get(i), remapTo.get(i));
+		}
+
+		if (colorMultiplier != -1) {
+			for (int i = 0; i < 4; i++) {
+				quad.color(i, SimpleQuadTransform.multiplyColor(quad.color(i), colorMultiplier));
+			}
+		}
+
+		if (hasMatrix) {
+			SimpleQuadTransform.transformGeometry(quad, matrix, normalMatrix);
+		}
+
+		if (material != null) {
+			quad.material(material);
+		}
+
+		return true;
+	}
+}
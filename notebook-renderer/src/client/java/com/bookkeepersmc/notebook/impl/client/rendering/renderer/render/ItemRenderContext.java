@@ -22,6 +22,8 @@
  */
 package com.bookkeepersmc.notebook.impl.client.rendering.renderer.render;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import com.mojang.blaze3d.vertex.VertexConsumer;
@@ -38,6 +40,8 @@ import net.minecraft.client.render.item.ItemRenderer;
 import net.minecraft.client.render.model.BakedModel;
 import net.minecraft.client.render.model.json.ModelTransformationMode;
 import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.component.ComponentChanges;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.MatrixUtil;
@@ -45,10 +49,14 @@ import net.minecraft.util.random.RandomGenerator;
 
 import com.bookkeepersmc.notebook.api.renderer.v1.material.BlendMode;
 import com.bookkeepersmc.notebook.api.renderer.v1.material.RenderMaterial;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.Mesh;
 import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadEmitter;
 import com.bookkeepersmc.notebook.api.util.TriState;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.ModelRenderEvent;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.RendererStats;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.helper.ColorHelper;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.mesh.EncodingFormat;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.mesh.MeshBuilderImpl;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.mesh.MutableQuadViewImpl;
 import com.bookkeepersmc.notebook.impl.renderer.VanillaModelEncoder;
 import com.bookkeepersmc.notebook.mixin.client.rendering.renderer.ItemRendererAccessor;
@@ -59,6 +67,7 @@ import com.bookkeepersmc.notebook.mixin.client.rendering.renderer.ItemRendererAc
 public class ItemRenderContext extends AbstractRenderContext {
 	/** Value vanilla uses for item rendering.  The only sensible choice, of course.  */
 	private static final long ITEM_RANDOM_SEED = 42L;
+	private static final int QUAD_CACHE_SIZE = Integer.getInteger("notebook.renderer.itemQuadCacheSize", 1024);
 
 	private final ItemColors colorMap;
 	private final RandomGenerator random = RandomGenerator.createLegacy();
@@ -79,8 +88,39 @@ public class ItemRenderContext extends AbstractRenderContext {
 		}
 	};
 
+	/** Shades and buffers quads replayed from {@link #quadCache}, which are already colored. */
+	private final MutableQuadViewImpl replayQuad = new MutableQuadViewImpl() {
+		{
+			data = new int[EncodingFormat.TOTAL_STRIDE];
+			clear();
+		}
+
+		@Override
+		public void emitDirectly() {
+			final RenderMaterial mat = material();
+			shadeQuad(this, mat.emissive());
+			bufferQuad(this, getVertexConsumer(mat.blendMode(), mat.glint()));
+		}
+	};
+
 	private final BakedModelConsumerImpl vanillaModelConsumer = new BakedModelConsumerImpl();
 
+	/**
+	 * Colored quads of GUI renders of models with {@link com.bookkeepersmc.notebook.api.renderer.v1.model.NotebookBakedModel#hasStaticItemQuads static item quads},
+	 * least recently used first. Shading is applied on replay, so that the lightmap is not part of the key.
+	 * Cleared when models are reloaded.
+	 */
+	private final Map<QuadCacheKey, Mesh> quadCache = new LinkedHashMap<>(64, 0.75F, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<QuadCacheKey, Mesh> eldest) {
+			return size() > QUAD_CACHE_SIZE;
+		}
+	};
+	private int quadCacheGeneration = VanillaModelEncoder.getCacheGeneration();
+	private final MeshBuilderImpl recordingBuilder = new MeshBuilderImpl();
+	@Nullable
+	private QuadEmitter recordingEmitter;
+
 	private ItemStack itemStack;
 	private ModelTransformationMode transformMode;
 	private MatrixStack matrixStack;
@@ -101,6 +141,10 @@ public class ItemRenderContext extends AbstractRenderContext {
 		this.colorMap = colorMap;
 	}
 
+	public RendererStats.Counters getStats() {
+		return stats;
+	}
+
 	@Override
 	public QuadEmitter getEmitter() {
 		editorQuad.clear();
@@ -123,6 +167,13 @@ public class ItemRenderContext extends AbstractRenderContext {
 	}
 
 	public void renderModel(ItemStack itemStack, ModelTransformationMode transformMode, MatrixStack matrixStack, VertexConsumerProvider vertexConsumerProvider, int lightmap, int overlay, BakedModel model) {
+		final long start = System.nanoTime();
+		final ModelRenderEvent event = ModelRenderEvent.isTypeEnabled() ? new ModelRenderEvent() : null;
+
+		if (event != null) {
+			event.begin();
+		}
+
 		this.itemStack = itemStack;
 		this.transformMode = transformMode;
 		this.matrixStack = matrixStack;
@@ -134,7 +185,25 @@ public class ItemRenderContext extends AbstractRenderContext {
 		matrix = matrixStack.peek().getModel();
 		normalMatrix = matrixStack.peek().getNormal();
 
-		model.emitItemQuads(itemStack, randomSupplier, this);
+		// Replayed quads skip the transforms, so only renders without any can use the cache.
+		if (QUAD_CACHE_SIZE > 0 && transformMode == ModelTransformationMode.GUI && !hasTransform() && model.hasStaticItemQuads(itemStack, transformMode)) {
+			renderCached(model);
+		} else {
+			model.emitItemQuads(itemStack, randomSupplier, this);
+		}
+
+		if (event != null) {
+			event.end();
+
+			if (event.shouldCommit()) {
+				event.model = model.getClass().getName();
+				event.target = itemStack.toString();
+				event.commit();
+			}
+		}
+
+		stats.increment(RendererStats.ITEMS);
+		stats.add(RendererStats.ITEM_NANOS, System.nanoTime() - start);
 
 		this.itemStack = null;
 		this.matrixStack = null;
@@ -147,6 +216,33 @@ public class ItemRenderContext extends AbstractRenderContext {
 		cutoutGlintVertexConsumer = null;
 	}
 
+	private void renderCached(BakedModel model) {
+		if (quadCacheGeneration != VanillaModelEncoder.getCacheGeneration()) {
+			quadCache.clear();
+			quadCacheGeneration = VanillaModelEncoder.getCacheGeneration();
+		}
+
+		final QuadCacheKey key = new QuadCacheKey(model, itemStack.getItem(), itemStack.getComponentChanges());
+		Mesh quads = quadCache.get(key);
+
+		if (quads == null) {
+			recordingEmitter = recordingBuilder.getEmitter();
+
+			try {
+				model.emitItemQuads(itemStack, randomSupplier, this);
+			} finally {
+				// Also resets the builder if the model failed part way.
+				recordingEmitter = null;
+				quads = recordingBuilder.build();
+			}
+
+			quadCache.put(key, quads);
+		} else {
+			stats.increment(RendererStats.CACHED_ITEMS);
+			quads.outputTo(replayQuad);
+		}
+	}
+
 	private void computeOutputInfo() {
 		isDefaultTranslucent = RenderLayers.method_23678(itemStack) == TexturedRenderLayers.getItemEntityTranslucentCull();
 		isDefaultGlint = itemStack.hasGlint();
@@ -154,7 +250,10 @@ public class ItemRenderContext extends AbstractRenderContext {
 	}
 
 	private void renderQuad(MutableQuadViewImpl quad) {
+		stats.increment(RendererStats.QUADS);
+
 		if (!transform(quad)) {
+			stats.increment(RendererStats.TRANSFORM_REJECTED);
 			return;
 		}
 
@@ -164,6 +263,12 @@ public class ItemRenderContext extends AbstractRenderContext {
 		final VertexConsumer vertexConsumer = getVertexConsumer(mat.blendMode(), mat.glint());
 
 		colorizeQuad(quad, colorIndex);
+
+		if (recordingEmitter != null) {
+			recordingEmitter.copyFrom(quad);
+			recordingEmitter.emit();
+		}
+
 		shadeQuad(quad, emissive);
 		bufferQuad(quad, vertexConsumer);
 	}
@@ -273,4 +378,7 @@ public class ItemRenderContext extends AbstractRenderContext {
 			VanillaModelEncoder.emitItemQuads(model, state, randomSupplier, ItemRenderContext.this);
 		}
 	}
+
+	private record QuadCacheKey(BakedModel model, Item item, ComponentChanges components) {
+	}
 }
@@ -26,22 +26,28 @@ import java.util.function.Function;
 
 import com.mojang.blaze3d.vertex.BufferBuilder;
 import com.mojang.blaze3d.vertex.VertexConsumer;
+import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.client.render.OverlayTexture;
 import net.minecraft.client.render.RenderLayer;
-import net.minecraft.client.render.chunk.ChunkRenderRegion;
 import net.minecraft.client.render.model.BakedModel;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.util.crash.CrashException;
 import net.minecraft.util.crash.CrashReport;
 import net.minecraft.util.crash.CrashReportSection;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.random.RandomGenerator;
+import net.minecraft.world.BlockRenderView;
 
 import com.bookkeepersmc.notebook.api.renderer.v1.render.RenderContext;
+import com.bookkeepersmc.notebook.api.util.TriState;
 import com.bookkeepersmc.notebook.impl.client.rendering.renderer.aocalc.AoCalculator;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.ModelRenderEvent;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.RendererStats;
 
 /**
  * Implementation of {@link RenderContext} used during terrain rendering.
@@ -52,6 +58,12 @@ public class TerrainRenderContext extends AbstractBlockRenderContext {
 	public static final ThreadLocal<TerrainRenderContext> POOL = ThreadLocal.withInitial(TerrainRenderContext::new);
 
 	private final ChunkRenderInfo chunkInfo = new ChunkRenderInfo();
+	/** Faces of the current block whose culling has been computed, and those of them that should be drawn. */
+	private int cullCompletionFlags;
+	private int cullResultFlags;
+	private long sectionStart;
+	/** Whether {@link ModelRenderEvent} is recorded, read once per section. */
+	private boolean modelEventEnabled;
 
 	public TerrainRenderContext() {
 		overlay = OverlayTexture.DEFAULT_UV;
@@ -73,17 +85,62 @@ public class TerrainRenderContext extends AbstractBlockRenderContext {
 		};
 	}
 
+	@Override
+	public boolean isFaceCulled(@Nullable Direction face) {
+		if (face == null) {
+			return false;
+		}
+
+		final int mask = 1 << face.getId();
+
+		if ((cullCompletionFlags & mask) == 0) {
+			cullCompletionFlags |= mask;
+
+			if (chunkInfo.shouldDrawFace(blockInfo.blockPos, blockInfo.blockState, face)) {
+				cullResultFlags |= mask;
+				return false;
+			} else {
+				return true;
+			}
+		} else {
+			return (cullResultFlags & mask) == 0;
+		}
+	}
+
 	@Override
 	protected VertexConsumer getVertexConsumer(RenderLayer layer) {
 		return chunkInfo.getBuffer(layer);
 	}
 
-	public void prepare(ChunkRenderRegion blockView, Function<RenderLayer, BufferBuilder> bufferFunc) {
-		chunkInfo.prepare(blockView, bufferFunc);
+	/**
+	 * Forces ambient occlusion on or off for the blocks this context tessellates, or follows the game option again
+	 * with {@link TriState#DEFAULT}. Only meant for debugging, since the option also decides how vanilla renders.
+	 */
+	public void overrideAmbientOcclusion(TriState ambientOcclusion) {
+		blockInfo.ambientOcclusion = ambientOcclusion;
+	}
+
+	/**
+	 * Switches between the single-call and the per-attribute vertex output. Only meant for comparing the two while debugging.
+	 */
+	public void useBulkVertices(boolean bulkVertices) {
+		this.bulkVertices = bulkVertices;
+	}
+
+	public RendererStats.Counters getStats() {
+		return stats;
+	}
+
+	public void prepare(BlockRenderView blockView, ChunkSectionPos sectionPos, Function<RenderLayer, BufferBuilder> bufferFunc) {
+		sectionStart = System.nanoTime();
+		modelEventEnabled = ModelRenderEvent.isTypeEnabled();
+		chunkInfo.prepare(blockView, sectionPos, bufferFunc);
 		blockInfo.prepareForWorld(blockView, true);
 	}
 
 	public void release() {
+		stats.increment(RendererStats.SECTIONS);
+		stats.add(RendererStats.SECTION_NANOS, System.nanoTime() - sectionStart);
 		chunkInfo.release();
 		blockInfo.release();
 	}
@@ -91,6 +148,12 @@ public class TerrainRenderContext extends AbstractBlockRenderContext {
 	/** Called from chunk renderer hook. */
 	public void tessellateBlock(BlockState blockState, BlockPos blockPos, final BakedModel model, MatrixStack matrixStack) {
 		try {
+			final ModelRenderEvent event = modelEventEnabled ? new ModelRenderEvent() : null;
+
+			if (event != null) {
+				event.begin();
+			}
+
 			Vec3d offset = blockState.getModelOffset(blockPos);
 			matrixStack.translate(offset.x, offset.y, offset.z);
 
@@ -98,10 +161,13 @@ public class TerrainRenderContext extends AbstractBlockRenderContext {
 			this.normalMatrix = matrixStack.peek().getNormal();
 
 			blockInfo.recomputeSeed = true;
+			cullCompletionFlags = 0;
+			cullResultFlags = 0;
 
 			aoCalc.clear();
 			blockInfo.prepareForBlock(blockState, blockPos, model.useAmbientOcclusion());
 			model.emitBlockQuads(blockInfo.blockView, blockInfo.blockState, blockInfo.blockPos, blockInfo.randomSupplier, this);
+			finishBlock(model, event);
 		} catch (Throwable throwable) {
 			CrashReport crashReport = CrashReport.create(throwable, "Tessellating block in world - Indigo Renderer");
 			CrashReportSection crashReportSection = crashReport.addElement("Block being tessellated");
@@ -84,7 +84,7 @@ public abstract class SectionBuilderMixin {
 						@Local(ordinal = 0) Map<RenderLayer, BufferBuilder> builderMap) {
 		// hook just before iterating over the render chunk's blocks to capture the buffer builder map
 		TerrainRenderContext renderer = TerrainRenderContext.POOL.get();
-		renderer.prepare(region, layer -> getOrCreateBuilder(builderMap, allocators, layer));
+		renderer.prepare(region, sectionPos, layer -> getOrCreateBuilder(builderMap, allocators, layer));
 		((AccessChunkRendererRegion) region).notebook_setRenderer(renderer);
 	}
 
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.aocalc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that {@link AoFaceData#weightedLightAndAo} is bit for bit identical to the separate weighted sums it replaces.
+ */
+public class AoFaceDataTest {
+	private static final int SAMPLES = 100_000;
+
+	@Test
+	public void weightedLightAndAoMatchesSeparateSums() {
+		final Random random = new Random(0);
+		final AoFaceData data = new AoFaceData();
+		final float[] w = new float[4];
+		final int[] lightOut = new int[4];
+		final float[] aoOut = new float[4];
+
+		for (int i = 0; i < SAMPLES; i++) {
+			data.a0 = ao(random);
+			data.a1 = ao(random);
+			data.a2 = ao(random);
+			data.a3 = ao(random);
+			data.l0(light(random));
+			data.l1(light(random));
+			data.l2(light(random));
+			data.l3(light(random));
+			weights(random, w);
+
+			final int vertexIndex = random.nextInt(4);
+			data.weightedLightAndAo(w, vertexIndex, lightOut, aoOut);
+
+			assertEquals(data.weightedCombinedLight(w), lightOut[vertexIndex], "Light of sample " + i);
+			assertEquals(Float.floatToRawIntBits(data.weigtedAo(w)), Float.floatToRawIntBits(aoOut[vertexIndex]), "AO of sample " + i);
+		}
+	}
+
+	private static float ao(Random random) {
+		// Vanilla AO levels are 0.2 or 1, with the luminance fix anything in between.
+		return switch (random.nextInt(3)) {
+		case 0 -> 0.2F;
+		case 1 -> 1.0F;
+		default -> random.nextFloat();
+		};
+	}
+
+	private static int light(Random random) {
+		if (random.nextInt(8) == 0) {
+			// Anything packed, to also cover the masking of out of range sums.
+			return random.nextInt();
+		}
+
+		// Block and sky light levels as lightmap coordinates, 0 to 15 times 16.
+		return random.nextInt(16) << 20 | random.nextInt(16) << 4;
+	}
+
+	private static void weights(Random random, float[] w) {
+		switch (random.nextInt(3)) {
+		case 0 -> {
+			// Bilinear weights of a point on the face, as the calculator computes them.
+			final float u = random.nextFloat();
+			final float v = random.nextFloat();
+			w[0] = u * v;
+			w[1] = u * (1 - v);
+			w[2] = (1 - u) * (1 - v);
+			w[3] = (1 - u) * v;
+		}
+		case 1 -> {
+			// A single corner, as for vertices at the corners of the face.
+			final int corner = random.nextInt(4);
+
+			for (int i = 0; i < 4; i++) {
+				w[i] = i == corner ? 1 : 0;
+			}
+		}
+		default -> {
+			for (int i = 0; i < 4; i++) {
+				w[i] = random.nextFloat() * 2 - 0.5F;
+			}
+		}
+		}
+	}
+}
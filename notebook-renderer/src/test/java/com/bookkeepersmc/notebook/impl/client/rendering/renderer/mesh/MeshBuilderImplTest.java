@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.mesh;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.util.math.Direction;
+
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.Mesh;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.MeshBuilder;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadEmitter;
+import com.bookkeepersmc.notebook.api.renderer.v1.model.ModelHelper;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.NotebookRenderer;
+
+/**
+ * Checks that presized builders and meshes baked on the worker executor encode exactly the same data as a default builder.
+ */
+public class MeshBuilderImplTest {
+	private static final int QUADS = 300;
+
+	@Test
+	public void presizedBuilder() {
+		final int[] expected = build(NotebookRenderer.INSTANCE.meshBuilder(), emitRandomQuads(1, QUADS));
+
+		// Too small, exact and too large capacities all have to end up with the same data.
+		for (int expectedQuads : new int[] { 0, 1, QUADS / 2, QUADS - 1, QUADS, QUADS + 1, QUADS * 4 }) {
+			assertArrayEquals(expected, build(NotebookRenderer.INSTANCE.meshBuilder(expectedQuads), emitRandomQuads(1, QUADS)), "Expected quads " + expectedQuads);
+		}
+	}
+
+	@Test
+	public void reusedBuilder() {
+		final MeshBuilder builder = NotebookRenderer.INSTANCE.meshBuilder(QUADS);
+
+		for (int seed = 0; seed < 10; seed++) {
+			final int[] expected = build(NotebookRenderer.INSTANCE.meshBuilder(), emitRandomQuads(seed, QUADS));
+			assertArrayEquals(expected, build(builder, emitRandomQuads(seed, QUADS)), "Seed " + seed);
+		}
+	}
+
+	@Test
+	public void bakedMeshes() {
+		final List<CompletableFuture<Mesh>> futures = new ArrayList<>();
+
+		// Many bakes at once, so that several run at the same time on the worker threads.
+		for (int seed = 0; seed < 64; seed++) {
+			futures.add(NotebookRenderer.INSTANCE.bakeMesh(seed % 3 == 0 ? 0 : QUADS, emitRandomQuads(seed, QUADS)));
+		}
+
+		for (int seed = 0; seed < futures.size(); seed++) {
+			final int[] expected = build(NotebookRenderer.INSTANCE.meshBuilder(), emitRandomQuads(seed, QUADS));
+			assertArrayEquals(expected, ((MeshImpl) futures.get(seed).join()).data, "Seed " + seed);
+		}
+	}
+
+	private static int[] build(MeshBuilder builder, Consumer<QuadEmitter> task) {
+		task.accept(builder.getEmitter());
+		return ((MeshImpl) builder.build()).data;
+	}
+
+	/**
+	 * Emits the same quads every time it is called with the same seed, covering the parts of the encoding that the mesh stores.
+	 */
+	static Consumer<QuadEmitter> emitRandomQuads(long seed, int count) {
+		return emitter -> {
+			final Random random = new Random(seed);
+
+			for (int i = 0; i < count; i++) {
+				for (int vertex = 0; vertex < 4; vertex++) {
+					emitter.pos(vertex, random.nextFloat(), random.nextFloat(), random.nextFloat());
+					emitter.uv(vertex, random.nextFloat(), random.nextFloat());
+					emitter.color(vertex, random.nextInt());
+					emitter.lightmap(vertex, random.nextInt(0xF000F1));
+
+					if (random.nextBoolean()) {
+						emitter.normal(vertex, random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1);
+					}
+				}
+
+				final Direction face = ModelHelper.faceFromIndex(random.nextInt(ModelHelper.NULL_FACE_ID + 1));
+				emitter.cullFace(face);
+				emitter.nominalFace(random.nextBoolean() ? face : null);
+				emitter.colorIndex(random.nextInt(4) - 1);
+				emitter.tag(random.nextInt());
+				emitter.emit();
+			}
+		};
+	}
+}
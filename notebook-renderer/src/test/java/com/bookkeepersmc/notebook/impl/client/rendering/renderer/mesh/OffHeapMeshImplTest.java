@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.mesh;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.Mesh;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.MeshBuilder;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.NotebookRenderer;
+
+/**
+ * Checks that off-heap meshes give back exactly the quads a heap mesh built from the same input does.
+ */
+public class OffHeapMeshImplTest {
+	private static final Logger LOGGER = LoggerFactory.getLogger("notebookRendererBenchmark");
+	private static final int QUADS = 300;
+	private static final int MESH_MEGABYTES = Integer.getInteger("notebook.renderer.debug.benchmark.meshMegabytes", 500);
+
+	@Test
+	public void forEachMatchesHeapMesh() {
+		for (int seed = 0; seed < 10; seed++) {
+			final Mesh heap = build(seed, false);
+			final Mesh offHeap = build(seed, true);
+
+			assertInstanceOf(OffHeapMeshImpl.class, offHeap);
+			assertArrayEquals(((MeshImpl) heap).data, quads(heap), "Seed " + seed);
+			assertArrayEquals(quads(heap), quads(offHeap), "Seed " + seed);
+		}
+	}
+
+	@Test
+	public void outputToMatchesHeapMesh() {
+		for (int seed = 0; seed < 10; seed++) {
+			final Mesh heap = build(seed, false);
+			final Mesh offHeap = build(seed, true);
+
+			assertArrayEquals(output(heap), output(offHeap), "Seed " + seed);
+			// Re-emitting the quads gives back the encoding they were built with.
+			assertArrayEquals(((MeshImpl) heap).data, output(offHeap), "Seed " + seed);
+		}
+	}
+
+	@Test
+	public void nestedForEach() {
+		final Mesh outer = build(3, true);
+		final Mesh inner = build(4, true);
+		final int[] expected = quads(build(3, false));
+		final List<int[]> quads = new ArrayList<>();
+
+		// Like with heap meshes, a consumer iterating another mesh must not change the quad it was given.
+		outer.forEach(quad -> {
+			inner.forEach(innerQuad -> { });
+			final QuadViewImpl view = (QuadViewImpl) quad;
+			quads.add(Arrays.copyOfRange(view.data, view.baseIndex, view.baseIndex + EncodingFormat.TOTAL_STRIDE));
+		});
+
+		assertEquals(QUADS, quads.size());
+
+		for (int i = 0; i < quads.size(); i++) {
+			assertArrayEquals(Arrays.copyOfRange(expected, i * EncodingFormat.TOTAL_STRIDE, (i + 1) * EncodingFormat.TOTAL_STRIDE), quads.get(i), "Quad " + i);
+		}
+	}
+
+	/**
+	 * Holds {@code notebook.renderer.debug.benchmark.meshMegabytes} of mesh data on and off the heap, and reports how long the
+	 * collector pauses with it: a few full collections, and young collections caused by short-lived garbage.
+	 * Needs a heap large enough for the heap meshes, for example {@code -Xmx2G} for the default of 500 MB.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "notebook.renderer.debug.benchmark", matches = "true")
+	public void gcPauses() {
+		final int[] data = ((MeshImpl) build(0, false)).data;
+		final int meshes = (int) ((long) MESH_MEGABYTES * 1024 * 1024 / ((long) data.length * Integer.BYTES));
+
+		measureGcPauses("heap", meshes, i -> new MeshImpl(data.clone()));
+		measureGcPauses("off-heap", meshes, i -> new OffHeapMeshImpl(data, data.length));
+	}
+
+	private static void measureGcPauses(String name, int count, IntFunction<Mesh> factory) {
+		final List<Mesh> meshes = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			meshes.add(factory.apply(i));
+		}
+
+		System.gc();
+		long[] start = collections();
+
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+		}
+
+		long[] end = collections();
+		LOGGER.info("{} meshes: {} full collections took {} ms total with {} MB of mesh data", name, end[0] - start[0], end[1] - start[1], MESH_MEGABYTES);
+
+		start = collections();
+		long checksum = 0;
+
+		// About 4 GB of garbage that dies young, like the buffers of a few seconds of rendering.
+		for (int i = 0; i < 64 * 1024; i++) {
+			checksum += new byte[64 * 1024].length;
+		}
+
+		end = collections();
+		LOGGER.info("{} meshes: {} collections took {} ms total while allocating {} MB of garbage", name, end[0] - start[0], end[1] - start[1], checksum / (1024 * 1024));
+
+		// Keep the meshes reachable until all collections have run.
+		assertEquals(count, meshes.size());
+	}
+
+	/**
+	 * @return the number of collections and their accumulated time in milliseconds, over all collectors
+	 */
+	private static long[] collections() {
+		final long[] result = new long[2];
+
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			result[0] += Math.max(0, collector.getCollectionCount());
+			result[1] += Math.max(0, collector.getCollectionTime());
+		}
+
+		return result;
+	}
+
+	private static Mesh build(long seed, boolean offHeap) {
+		final MeshBuilder builder = NotebookRenderer.INSTANCE.meshBuilder();
+		MeshBuilderImplTest.emitRandomQuads(seed, QUADS).accept(builder.getEmitter());
+		return offHeap ? builder.buildOffHeap() : builder.build();
+	}
+
+	/**
+	 * @return the encoded data of every quad passed to {@link Mesh#forEach}, one after the other
+	 */
+	private static int[] quads(Mesh mesh) {
+		final List<int[]> quads = new ArrayList<>();
+
+		mesh.forEach(quad -> {
+			final QuadViewImpl view = (QuadViewImpl) quad;
+			quads.add(Arrays.copyOfRange(view.data, view.baseIndex, view.baseIndex + EncodingFormat.TOTAL_STRIDE));
+		});
+
+		final int[] result = new int[quads.size() * EncodingFormat.TOTAL_STRIDE];
+
+		for (int i = 0; i < quads.size(); i++) {
+			System.arraycopy(quads.get(i), 0, result, i * EncodingFormat.TOTAL_STRIDE, EncodingFormat.TOTAL_STRIDE);
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return the encoded data of a mesh built from the quads passed to {@link Mesh#outputTo}
+	 */
+	private static int[] output(Mesh mesh) {
+		final MeshBuilder builder = NotebookRenderer.INSTANCE.meshBuilder();
+		mesh.outputTo(builder.getEmitter());
+		return ((MeshImpl) builder.build()).data;
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.BlockRenderView;
+
+/**
+ * Checks that the face culling of {@link ChunkRenderInfo} matches uncached {@link Block#shouldDrawSide} calls,
+ * and benchmarks both on full and sparse sections with {@code -Dnotebook.renderer.debug.benchmark=true} given to Gradle.
+ */
+public class ChunkRenderInfoTest {
+	private static final Logger LOGGER = LoggerFactory.getLogger("notebookRendererBenchmark");
+	private static final int ITERATIONS = Integer.getInteger("notebook.renderer.debug.benchmark.iterations", 200);
+	private static final ChunkSectionPos SECTION = ChunkSectionPos.from(3, -2, 5);
+	private static final Direction[] DIRECTIONS = Direction.values();
+
+	@BeforeAll
+	static void beforeAll() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+	}
+
+	@Test
+	public void matchesUncachedCulling() {
+		for (float density : new float[] { 0.0F, 0.05F, 0.5F, 1.0F }) {
+			final Region region = new Region(new Random(Float.floatToIntBits(density)), density);
+			final ChunkRenderInfo chunkInfo = new ChunkRenderInfo();
+			chunkInfo.prepare(region.view, SECTION, null);
+
+			// Includes the border, which is outside the section and has to fall back to the block view.
+			for (int y = -1; y <= 16; y++) {
+				for (int z = -1; z <= 16; z++) {
+					for (int x = -1; x <= 16; x++) {
+						final BlockPos pos = new BlockPos(SECTION.getMinX() + x, SECTION.getMinY() + y, SECTION.getMinZ() + z);
+						final BlockState state = region.view.getBlockState(pos);
+
+						for (Direction face : DIRECTIONS) {
+							final boolean expected = Block.shouldDrawSide(state, region.view.getBlockState(pos.offset(face)), face);
+							assertEquals(expected, chunkInfo.shouldDrawFace(pos, state, face), "Face " + face + " of " + state + " at " + pos + ", density " + density);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "notebook.renderer.debug.benchmark", matches = "true")
+	public void benchmark() {
+		benchmark("full", 1.0F);
+		benchmark("half", 0.5F);
+		benchmark("sparse", 0.05F);
+	}
+
+	private static void benchmark(String name, float density) {
+		final Region region = new Region(new Random(0), density);
+		final ChunkRenderInfo chunkInfo = new ChunkRenderInfo();
+		final BlockPos.Mutable searchPos = new BlockPos.Mutable();
+		int drawn = 0;
+
+		// Warm up both paths before measuring.
+		for (int i = 0; i < ITERATIONS; i++) {
+			drawn += uncached(region, searchPos) + cached(region, chunkInfo);
+		}
+
+		region.reads = 0;
+		long start = System.nanoTime();
+
+		for (int i = 0; i < ITERATIONS; i++) {
+			drawn += uncached(region, searchPos);
+		}
+
+		final long uncachedNanos = System.nanoTime() - start;
+		final long uncachedReads = region.reads;
+
+		region.reads = 0;
+		start = System.nanoTime();
+
+		for (int i = 0; i < ITERATIONS; i++) {
+			drawn += cached(region, chunkInfo);
+		}
+
+		final long cachedNanos = System.nanoTime() - start;
+		final long cachedReads = region.reads;
+
+		LOGGER.info("{} section ({} blocks): uncached {} us and {} state reads, cached {} us and {} state reads per section ({} drawn faces)",
+				name, region.blocks, uncachedNanos / ITERATIONS / 1000, uncachedReads / ITERATIONS, cachedNanos / ITERATIONS / 1000, cachedReads / ITERATIONS, drawn);
+	}
+
+	/**
+	 * Culls every face of every non-air block of the section the way {@link BlockRenderInfo#shouldDrawFace} does.
+	 */
+	private static int uncached(Region region, BlockPos.Mutable searchPos) {
+		int drawn = 0;
+
+		for (int i = 0; i < region.blocks; i++) {
+			final BlockPos pos = region.positions[i];
+			final BlockState state = region.states[i];
+
+			for (Direction face : DIRECTIONS) {
+				if (Block.shouldDrawSide(state, region.view.getBlockState(searchPos.set(pos, face)), face)) {
+					drawn++;
+				}
+			}
+		}
+
+		return drawn;
+	}
+
+	private static int cached(Region region, ChunkRenderInfo chunkInfo) {
+		int drawn = 0;
+		chunkInfo.prepare(region.view, SECTION, null);
+
+		for (int i = 0; i < region.blocks; i++) {
+			for (Direction face : DIRECTIONS) {
+				if (chunkInfo.shouldDrawFace(region.positions[i], region.states[i], face)) {
+					drawn++;
+				}
+			}
+		}
+
+		return drawn;
+	}
+
+	/**
+	 * A section and its border filled with a random mix of full, transparent and partial blocks, where the given share
+	 * of positions is not air. Counts the block state reads made through its view.
+	 */
+	private static class Region {
+		private static final BlockState[] SOLIDS = {
+				Blocks.STONE.getDefaultState(),
+				Blocks.DIRT.getDefaultState(),
+				Blocks.GLASS.getDefaultState(),
+				Blocks.OAK_LEAVES.getDefaultState(),
+				Blocks.OAK_SLAB.getDefaultState(),
+		};
+
+		private final BlockState[] volume = new BlockState[18 * 18 * 18];
+		private final BlockPos[] positions = new BlockPos[16 * 16 * 16];
+		private final BlockState[] states = new BlockState[16 * 16 * 16];
+		private final BlockRenderView view = mock(BlockRenderView.class);
+		private int blocks;
+		private long reads;
+
+		Region(Random random, float density) {
+			for (int i = 0; i < volume.length; i++) {
+				volume[i] = random.nextFloat() < density ? SOLIDS[random.nextInt(SOLIDS.length)] : Blocks.AIR.getDefaultState();
+			}
+
+			when(view.getBlockState(any(BlockPos.class))).thenAnswer(invocation -> {
+				reads++;
+				return stateAt(invocation.getArgument(0));
+			});
+
+			for (int y = 0; y < 16; y++) {
+				for (int z = 0; z < 16; z++) {
+					for (int x = 0; x < 16; x++) {
+						final BlockPos pos = new BlockPos(SECTION.getMinX() + x, SECTION.getMinY() + y, SECTION.getMinZ() + z);
+						final BlockState state = stateAt(pos);
+
+						if (!state.isAir()) {
+							positions[blocks] = pos;
+							states[blocks] = state;
+							blocks++;
+						}
+					}
+				}
+			}
+		}
+
+		private BlockState stateAt(BlockPos pos) {
+			final int x = pos.getX() - SECTION.getMinX() + 1;
+			final int y = pos.getY() - SECTION.getMinY() + 1;
+			final int z = pos.getZ() - SECTION.getMinZ() + 1;
+
+			if (x < 0 || y < 0 || z < 0 || x >= 18 || y >= 18 || z >= 18) {
+				return Blocks.AIR.getDefaultState();
+			}
+
+			return volume[(y * 18 + z) * 18 + x];
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2023, 2024 BookkeepersMC under the MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package com.bookkeepersmc.notebook.impl.client.rendering.renderer.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.Invocation;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.client.color.item.ItemColors;
+import net.minecraft.client.render.LightmapTextureManager;
+import net.minecraft.client.render.OverlayTexture;
+import net.minecraft.client.render.VertexConsumerProvider;
+import net.minecraft.client.render.model.BakedModel;
+import net.minecraft.client.render.model.json.ModelTransformationMode;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+
+import com.bookkeepersmc.notebook.api.renderer.v1.material.BlendMode;
+import com.bookkeepersmc.notebook.api.renderer.v1.material.RenderMaterial;
+import com.bookkeepersmc.notebook.api.renderer.v1.mesh.QuadEmitter;
+import com.bookkeepersmc.notebook.api.renderer.v1.render.RenderContext;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.NotebookRenderer;
+import com.bookkeepersmc.notebook.impl.client.rendering.renderer.debug.RendererStats;
+
+/**
+ * Checks that GUI renders of models with static item quads replay exactly the vertices an uncached render outputs,
+ * whatever the lightmap of the render that filled the cache.
+ */
+public class ItemRenderContextTest {
+	private static final int QUADS = 50;
+	private static final int[] LIGHTMAPS = { 0, 0x500070, LightmapTextureManager.MAX_LIGHT_COORDINATE };
+
+	private static RenderMaterial[] materials;
+
+	@BeforeAll
+	static void beforeAll() {
+		SharedConstants.createGameVersion();
+		Bootstrap.initialize();
+
+		materials = new RenderMaterial[] {
+				NotebookRenderer.INSTANCE.materialFinder().find(),
+				NotebookRenderer.INSTANCE.materialFinder().emissive(true).find(),
+				NotebookRenderer.INSTANCE.materialFinder().blendMode(BlendMode.TRANSLUCENT).find()
+		};
+	}
+
+	@Test
+	public void cacheHitMatchesUncachedRender() {
+		final ItemColors colors = mock(ItemColors.class);
+		when(colors.getColor(any(), anyInt())).thenReturn(0xFF80C040);
+
+		for (int recordLightmap : LIGHTMAPS) {
+			final ItemRenderContext context = new ItemRenderContext(colors);
+			final BakedModel cachedModel = model(true);
+			final BakedModel uncachedModel = model(false);
+
+			for (ItemStack stack : new ItemStack[] { new ItemStack(Items.STONE), new ItemStack(Items.DIRT) }) {
+				final List<String> miss = render(context, stack, cachedModel, recordLightmap);
+				assertEquals(render(context, stack, uncachedModel, recordLightmap), miss, "Miss of " + stack);
+				assertFalse(miss.isEmpty());
+
+				for (int lightmap : LIGHTMAPS) {
+					final long hits = context.getStats().get(RendererStats.CACHED_ITEMS);
+					final List<String> hit = render(context, stack, cachedModel, lightmap);
+
+					assertEquals(hits + 1, context.getStats().get(RendererStats.CACHED_ITEMS), "Cache hits of " + stack);
+					assertEquals(render(context, stack, uncachedModel, lightmap), hit, "Hit of " + stack + " recorded at " + recordLightmap + ", replayed at " + lightmap);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Renders the stack in the GUI and returns the calls made on the vertex consumer, with their arguments.
+	 */
+	private static List<String> render(ItemRenderContext context, ItemStack stack, BakedModel model, int lightmap) {
+		final VertexConsumer consumer = mock(VertexConsumer.class, RETURNS_SELF);
+		final VertexConsumerProvider provider = layer -> consumer;
+		context.renderModel(stack, ModelTransformationMode.GUI, new MatrixStack(), provider, lightmap, OverlayTexture.DEFAULT_UV, model);
+
+		final List<String> calls = new ArrayList<>();
+
+		for (Invocation invocation : mockingDetails(consumer).getInvocations()) {
+			calls.add(invocation.getMethod().getName() + Arrays.toString(invocation.getArguments()));
+		}
+
+		return calls;
+	}
+
+	/**
+	 * A model emitting the same random quads every time for a given item, with tinted, emissive and translucent ones.
+	 */
+	private static BakedModel model(boolean staticQuads) {
+		final BakedModel model = mock(BakedModel.class);
+		when(model.hasStaticItemQuads(any(), any())).thenReturn(staticQuads);
+
+		doAnswer(invocation -> {
+			final ItemStack stack = invocation.getArgument(0);
+			final QuadEmitter emitter = invocation.<RenderContext>getArgument(2).getEmitter();
+			final Random random = new Random(stack.getItem() == Items.STONE ? 1 : 2);
+
+			for (int i = 0; i < QUADS; i++) {
+				for (int vertex = 0; vertex < 4; vertex++) {
+					emitter.pos(vertex, random.nextFloat(), random.nextFloat(), random.nextFloat());
+					emitter.uv(vertex, random.nextFloat(), random.nextFloat());
+					emitter.color(vertex, random.nextInt());
+					emitter.lightmap(vertex, random.nextInt(0xF000F1));
+
+					if (random.nextBoolean()) {
+						emitter.normal(vertex, random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1, random.nextFloat() * 2 - 1);
+					}
+				}
+
+				emitter.material(materials[random.nextInt(materials.length)]);
+				emitter.colorIndex(random.nextBoolean() ? 0 : -1);
+				emitter.emit();
+			}
+
+			return null;
+		}).when(model).emitItemQuads(any(), any(), any());
+
+		return model;
+	}
+}